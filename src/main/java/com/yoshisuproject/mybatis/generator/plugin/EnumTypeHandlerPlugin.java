@@ -0,0 +1,350 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.java.TopLevelEnumeration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.internal.util.StringUtility;
+
+/**
+ * MyBatis Generator plugin to map low-cardinality string columns to generated Java enums.
+ * <p>
+ * For every column whose {@code <columnOverride>} declares the {@code enumValues} property, this plugin
+ * generates an enum holding the allowed database values and a MyBatis {@code TypeHandler} that resolves
+ * them through a precomputed {@code switch}. The column is then typed as the enum in the model and mapped
+ * through the generated handler in the mapper.
+ * <p>
+ * Columns whose values map to the same enum constant, or whose enum would have the same name as a
+ * generated model or another generated enum, are skipped with a warning.
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>targetPackage: Package for the generated enums and type handlers (defaults to the model package)</li>
+ * </ul>
+ * Column override properties:
+ * <ul>
+ *   <li>enumValues: Comma separated list of the values stored in the column</li>
+ *   <li>enumName: Simple name of the generated enum (defaults to domain object name + property name)</li>
+ * </ul>
+ */
+public class EnumTypeHandlerPlugin extends PluginAdapter {
+
+    private static final String PROPERTY_TARGET_PACKAGE = "targetPackage";
+
+    private static final String COLUMN_PROPERTY_ENUM_VALUES = "enumValues";
+
+    private static final String COLUMN_PROPERTY_ENUM_NAME = "enumName";
+
+    private String targetPackage;
+
+    private List<String> warnings;
+
+    private final Map<IntrospectedTable, List<IntrospectedColumn>> enumColumns = new HashMap<>();
+
+    private final Set<String> enumTypes = new HashSet<>();
+
+    /**
+     * Sets plugin properties.
+     *
+     * @param properties The properties configured for this plugin
+     */
+    @Override
+    public void setProperties(Properties properties) {
+        super.setProperties(properties);
+        this.targetPackage = properties.getProperty(PROPERTY_TARGET_PACKAGE);
+    }
+
+    /**
+     * Validates the plugin configuration.
+     *
+     * @param warnings Warnings during validation will be added to this list
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        this.warnings = warnings;
+        return true;
+    }
+
+    /**
+     * Replaces the Java type of every configured column with its generated enum and registers the
+     * generated type handler for the column. Columns that would generate an invalid enum are skipped
+     * with a warning.
+     *
+     * @param introspectedTable The introspected table information
+     */
+    @Override
+    public void initialized(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> columns = new ArrayList<>();
+        for (IntrospectedColumn column : getEnumColumns(introspectedTable)) {
+            FullyQualifiedJavaType enumType = getEnumType(introspectedTable, column);
+            String problem = validateEnum(introspectedTable, column, enumType);
+            if (problem != null) {
+                warnings.add(MessageFormat.format(
+                        "Plugin EnumTypeHandlerPlugin skipped column {0} of table {1}: {2}",
+                        column.getActualColumnName(), introspectedTable.getFullyQualifiedTable(), problem));
+                continue;
+            }
+            enumTypes.add(enumType.getFullyQualifiedName());
+            column.setFullyQualifiedJavaType(enumType);
+            column.setTypeHandler(getTypeHandlerType(enumType).getFullyQualifiedName());
+            columns.add(column);
+        }
+        enumColumns.put(introspectedTable, columns);
+    }
+
+    /**
+     * Generates the enum and type handler for every configured column of the table.
+     *
+     * @param introspectedTable The introspected table information
+     * @return the generated enums and type handlers
+     */
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+        List<GeneratedJavaFile> answer = new ArrayList<>();
+        String targetProject = context.getJavaModelGeneratorConfiguration().getTargetProject();
+        String fileEncoding = context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING);
+
+        for (IntrospectedColumn column : enumColumns.getOrDefault(introspectedTable, Collections.emptyList())) {
+            List<String> values = getEnumValues(column);
+            FullyQualifiedJavaType enumType = getEnumType(introspectedTable, column);
+
+            answer.add(new GeneratedJavaFile(
+                    generateEnum(introspectedTable, enumType, values),
+                    targetProject,
+                    fileEncoding,
+                    context.getJavaFormatter()));
+            answer.add(new GeneratedJavaFile(
+                    generateTypeHandler(introspectedTable, enumType),
+                    targetProject,
+                    fileEncoding,
+                    context.getJavaFormatter()));
+        }
+        enumColumns.remove(introspectedTable);
+
+        return answer;
+    }
+
+    private TopLevelEnumeration generateEnum(
+            IntrospectedTable introspectedTable, FullyQualifiedJavaType enumType, List<String> values) {
+        TopLevelEnumeration enumeration = new TopLevelEnumeration(enumType);
+        enumeration.setVisibility(JavaVisibility.PUBLIC);
+        context.getCommentGenerator().addJavaFileComment(enumeration);
+        context.getCommentGenerator().addEnumComment(enumeration, introspectedTable);
+
+        for (String value : values) {
+            enumeration.addEnumConstant(toConstantName(value) + "(\"" + escape(value) + "\")");
+        }
+
+        Field field = new Field("value", FullyQualifiedJavaType.getStringInstance());
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        enumeration.addField(field);
+
+        Method constructor = new Method(enumType.getShortName());
+        constructor.setConstructor(true);
+        constructor.setVisibility(JavaVisibility.DEFAULT);
+        constructor.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "value"));
+        constructor.addBodyLine("this.value = value;");
+        enumeration.addMethod(constructor);
+
+        Method getter = new Method("getValue");
+        getter.setVisibility(JavaVisibility.PUBLIC);
+        getter.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        getter.addBodyLine("return value;");
+        context.getCommentGenerator().addGeneralMethodComment(getter, introspectedTable);
+        enumeration.addMethod(getter);
+
+        Method fromValue = new Method("fromValue");
+        fromValue.setVisibility(JavaVisibility.PUBLIC);
+        fromValue.setStatic(true);
+        fromValue.setReturnType(enumType);
+        fromValue.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "value"));
+        fromValue.addBodyLine("if (value == null) {");
+        fromValue.addBodyLine("return null;");
+        fromValue.addBodyLine("}");
+        fromValue.addBodyLine(enumType.getShortName() + " result;");
+        fromValue.addBodyLine("switch (value) {");
+        for (String value : values) {
+            fromValue.addBodyLine("case \"" + escape(value) + "\":");
+            fromValue.addBodyLine("result = " + toConstantName(value) + ";");
+            fromValue.addBodyLine("break;");
+        }
+        fromValue.addBodyLine("default:");
+        fromValue.addBodyLine(
+                "throw new IllegalArgumentException(\"Unknown " + enumType.getShortName() + " value: \" + value);");
+        fromValue.addBodyLine("}");
+        fromValue.addBodyLine("return result;");
+        context.getCommentGenerator().addGeneralMethodComment(fromValue, introspectedTable);
+        enumeration.addMethod(fromValue);
+
+        return enumeration;
+    }
+
+    private TopLevelClass generateTypeHandler(IntrospectedTable introspectedTable, FullyQualifiedJavaType enumType) {
+        FullyQualifiedJavaType baseTypeHandler = new FullyQualifiedJavaType("org.apache.ibatis.type.BaseTypeHandler");
+        FullyQualifiedJavaType preparedStatement = new FullyQualifiedJavaType("java.sql.PreparedStatement");
+        FullyQualifiedJavaType resultSet = new FullyQualifiedJavaType("java.sql.ResultSet");
+        FullyQualifiedJavaType callableStatement = new FullyQualifiedJavaType("java.sql.CallableStatement");
+        FullyQualifiedJavaType sqlException = new FullyQualifiedJavaType("java.sql.SQLException");
+        FullyQualifiedJavaType jdbcType = new FullyQualifiedJavaType("org.apache.ibatis.type.JdbcType");
+
+        TopLevelClass topLevelClass = new TopLevelClass(getTypeHandlerType(enumType));
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        FullyQualifiedJavaType superClass = new FullyQualifiedJavaType(baseTypeHandler.getFullyQualifiedName());
+        superClass.addTypeArgument(enumType);
+        topLevelClass.setSuperClass(superClass);
+        topLevelClass.addImportedType(baseTypeHandler);
+        topLevelClass.addImportedType(enumType);
+        topLevelClass.addImportedType(preparedStatement);
+        topLevelClass.addImportedType(resultSet);
+        topLevelClass.addImportedType(callableStatement);
+        topLevelClass.addImportedType(sqlException);
+        topLevelClass.addImportedType(jdbcType);
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+        context.getCommentGenerator().addClassComment(topLevelClass, introspectedTable);
+
+        Method setParameter = new Method("setNonNullParameter");
+        setParameter.setVisibility(JavaVisibility.PUBLIC);
+        setParameter.addAnnotation("@Override");
+        setParameter.addParameter(new Parameter(preparedStatement, "ps"));
+        setParameter.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "i"));
+        setParameter.addParameter(new Parameter(enumType, "parameter"));
+        setParameter.addParameter(new Parameter(jdbcType, "jdbcType"));
+        setParameter.addException(sqlException);
+        setParameter.addBodyLine("ps.setString(i, parameter.getValue());");
+        topLevelClass.addMethod(setParameter);
+
+        topLevelClass.addMethod(generateGetNullableResult(
+                enumType, resultSet, "rs", FullyQualifiedJavaType.getStringInstance(), "columnName"));
+        topLevelClass.addMethod(generateGetNullableResult(
+                enumType, resultSet, "rs", FullyQualifiedJavaType.getIntInstance(), "columnIndex"));
+        topLevelClass.addMethod(generateGetNullableResult(
+                enumType, callableStatement, "cs", FullyQualifiedJavaType.getIntInstance(), "columnIndex"));
+
+        return topLevelClass;
+    }
+
+    private Method generateGetNullableResult(
+            FullyQualifiedJavaType enumType,
+            FullyQualifiedJavaType sourceType,
+            String sourceName,
+            FullyQualifiedJavaType columnType,
+            String columnName) {
+        Method method = new Method("getNullableResult");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addAnnotation("@Override");
+        method.setReturnType(enumType);
+        method.addParameter(new Parameter(sourceType, sourceName));
+        method.addParameter(new Parameter(columnType, columnName));
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException"));
+        method.addBodyLine(
+                "return " + enumType.getShortName() + ".fromValue(" + sourceName + ".getString(" + columnName + "));");
+        return method;
+    }
+
+    private List<IntrospectedColumn> getEnumColumns(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> answer = new ArrayList<>();
+        for (IntrospectedColumn column : introspectedTable.getAllColumns()) {
+            if (StringUtility.stringHasValue(column.getProperties().getProperty(COLUMN_PROPERTY_ENUM_VALUES))) {
+                answer.add(column);
+            }
+        }
+        return answer;
+    }
+
+    private List<String> getEnumValues(IntrospectedColumn column) {
+        List<String> answer = new ArrayList<>();
+        for (String value :
+                column.getProperties().getProperty(COLUMN_PROPERTY_ENUM_VALUES).split(",")) {
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty() && !answer.contains(trimmed)) {
+                answer.add(trimmed);
+            }
+        }
+        return answer;
+    }
+
+    private String validateEnum(
+            IntrospectedTable introspectedTable, IntrospectedColumn column, FullyQualifiedJavaType enumType) {
+        Map<String, String> valueByConstant = new HashMap<>();
+        for (String value : getEnumValues(column)) {
+            String constantName = toConstantName(value);
+            if ("_".equals(constantName)) {
+                return "value \"" + value + "\" cannot be used as an enum constant";
+            }
+            String other = valueByConstant.put(constantName, value);
+            if (other != null) {
+                return "values \"" + other + "\" and \"" + value + "\" have the same enum constant " + constantName;
+            }
+        }
+
+        if (enumTypes.contains(enumType.getFullyQualifiedName())) {
+            return "enum " + enumType.getFullyQualifiedName() + " is already generated for another column";
+        }
+        String modelPackage = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType()).getPackageName();
+        if (modelPackage.equals(enumType.getPackageName())) {
+            for (IntrospectedTable table : context.getIntrospectedTables()) {
+                String domainObjectName = table.getFullyQualifiedTable().getDomainObjectName();
+                for (String suffix : new String[] {"", "Key", "WithBLOBs", "Example", "Mapper"}) {
+                    if (enumType.getShortName().equals(domainObjectName + suffix)) {
+                        return "enum " + enumType.getShortName() + " has the same name as a generated class,"
+                                + " set enumName or targetPackage";
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private FullyQualifiedJavaType getEnumType(IntrospectedTable introspectedTable, IntrospectedColumn column) {
+        String enumName = column.getProperties().getProperty(COLUMN_PROPERTY_ENUM_NAME);
+        if (!StringUtility.stringHasValue(enumName)) {
+            enumName = introspectedTable.getFullyQualifiedTable().getDomainObjectName()
+                    + JavaBeansUtil.getFirstCharacterUppercase(column.getJavaProperty());
+        }
+
+        String packageName = StringUtility.stringHasValue(targetPackage)
+                ? targetPackage
+                : new FullyQualifiedJavaType(introspectedTable.getBaseRecordType()).getPackageName();
+        return new FullyQualifiedJavaType(packageName + "." + enumName);
+    }
+
+    private FullyQualifiedJavaType getTypeHandlerType(FullyQualifiedJavaType enumType) {
+        return new FullyQualifiedJavaType(enumType.getFullyQualifiedName() + "TypeHandler");
+    }
+
+    private String toConstantName(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            sb.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        if (!Character.isJavaIdentifierStart(sb.charAt(0))) {
+            sb.insert(0, '_');
+        }
+        return sb.toString();
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,736 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.internal.util.StringUtility;
+
+/**
+ * MyBatis Generator plugin to generate Externalizable serialization for Serializable models.
+ * <p>
+ * Models implementing {@code java.io.Serializable} additionally implement {@code java.io.Externalizable}
+ * with a compact field encoding: a null bitmap for reference fields, zigzag varints for integral
+ * numbers and dates, and length prefixed UTF-8 strings and byte arrays. Types without a dedicated
+ * encoding fall back to {@code writeObject}.
+ * <p>
+ * Models extending a root class are skipped with a warning unless useExternalizableFromRoot is set,
+ * since the fields of the root class would otherwise be dropped from the serialized form. Immutable
+ * models, models with final fields and models without a public no-arg constructor, which
+ * deserialization of Externalizable requires, are skipped with a warning as well.
+ * <p>
+ * The generated fixtures also compare the size and round-trip time of the Externalizable form with
+ * default serialization of a plain Serializable copy of the same values. They sample the fields
+ * inherited from generated classes of the same table too, so that the calls to super are covered.
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>useExternalizableFromRoot: Whether to call super writeExternal/readExternal of the root class (true/false)</li>
+ *   <li>fixtureTargetProject: Target project of the generated round-trip fixtures, no fixture is generated if not set</li>
+ * </ul>
+ */
+public class ExternalizablePlugin extends PluginAdapter {
+
+    private static final class Codec {
+
+        private final List<String> writeLines;
+
+        private final String readExpression;
+
+        private final String sample;
+
+        private final List<String> helpers;
+
+        private final List<String> importedTypes;
+
+        private Codec(
+                List<String> writeLines,
+                String readExpression,
+                String sample,
+                List<String> helpers,
+                List<String> importedTypes) {
+            this.writeLines = writeLines;
+            this.readExpression = readExpression;
+            this.sample = sample;
+            this.helpers = helpers;
+            this.importedTypes = importedTypes;
+        }
+    }
+
+    private static final Map<String, Codec> CODECS = new HashMap<>();
+
+    static {
+        addCodec(
+                Arrays.asList("long", "java.lang.Long"),
+                Collections.singletonList("writeVarLong(out, %s);"),
+                "readVarLong(in)",
+                "1L",
+                Collections.singletonList("VarLong"));
+        addCodec(
+                Arrays.asList("int", "java.lang.Integer"),
+                Collections.singletonList("writeVarInt(out, %s);"),
+                "readVarInt(in)",
+                "1",
+                Collections.singletonList("VarInt"));
+        addCodec(
+                Arrays.asList("short", "java.lang.Short"),
+                Collections.singletonList("writeVarInt(out, %s);"),
+                "(short) readVarInt(in)",
+                "(short) 1",
+                Collections.singletonList("VarInt"));
+        addCodec(
+                Arrays.asList("byte", "java.lang.Byte"),
+                Collections.singletonList("out.writeByte(%s);"),
+                "in.readByte()",
+                "(byte) 1",
+                Collections.emptyList());
+        addCodec(
+                Arrays.asList("boolean", "java.lang.Boolean"),
+                Collections.singletonList("out.writeBoolean(%s);"),
+                "in.readBoolean()",
+                "true",
+                Collections.emptyList());
+        addCodec(
+                Arrays.asList("char", "java.lang.Character"),
+                Collections.singletonList("out.writeChar(%s);"),
+                "in.readChar()",
+                "'a'",
+                Collections.emptyList());
+        addCodec(
+                Arrays.asList("float", "java.lang.Float"),
+                Collections.singletonList("out.writeFloat(%s);"),
+                "in.readFloat()",
+                "1.5f",
+                Collections.emptyList());
+        addCodec(
+                Arrays.asList("double", "java.lang.Double"),
+                Collections.singletonList("out.writeDouble(%s);"),
+                "in.readDouble()",
+                "1.5d",
+                Collections.emptyList());
+        addCodec(
+                Collections.singletonList("java.lang.String"),
+                Collections.singletonList("writeString(out, %s);"),
+                "readString(in)",
+                "\"sample\"",
+                Arrays.asList("VarInt", "Bytes", "String"),
+                "java.nio.charset.StandardCharsets");
+        addCodec(
+                Collections.singletonList("byte[]"),
+                Collections.singletonList("writeBytes(out, %s);"),
+                "readBytes(in)",
+                "new byte[] {1, 2, 3}",
+                Arrays.asList("VarInt", "Bytes"));
+        addCodec(
+                Collections.singletonList("java.math.BigInteger"),
+                Collections.singletonList("writeBytes(out, %s.toByteArray());"),
+                "new BigInteger(readBytes(in))",
+                "BigInteger.valueOf(1234L)",
+                Arrays.asList("VarInt", "Bytes"));
+        addCodec(
+                Collections.singletonList("java.math.BigDecimal"),
+                Arrays.asList("writeBytes(out, %s.unscaledValue().toByteArray());", "writeVarInt(out, %s.scale());"),
+                "new BigDecimal(new BigInteger(readBytes(in)), readVarInt(in))",
+                "new BigDecimal(\"12.34\")",
+                Arrays.asList("VarInt", "Bytes"),
+                "java.math.BigInteger");
+        addCodec(
+                Collections.singletonList("java.util.Date"),
+                Collections.singletonList("writeVarLong(out, %s.getTime());"),
+                "new Date(readVarLong(in))",
+                "new Date(1000L)",
+                Collections.singletonList("VarLong"));
+        addCodec(
+                Collections.singletonList("java.time.LocalDate"),
+                Collections.singletonList("writeVarLong(out, %s.toEpochDay());"),
+                "LocalDate.ofEpochDay(readVarLong(in))",
+                "LocalDate.of(2020, 1, 2)",
+                Collections.singletonList("VarLong"));
+        addCodec(
+                Collections.singletonList("java.time.LocalTime"),
+                Collections.singletonList("writeVarLong(out, %s.toNanoOfDay());"),
+                "LocalTime.ofNanoOfDay(readVarLong(in))",
+                "LocalTime.of(3, 4, 5)",
+                Collections.singletonList("VarLong"));
+        addCodec(
+                Collections.singletonList("java.time.LocalDateTime"),
+                Arrays.asList(
+                        "writeVarLong(out, %s.toLocalDate().toEpochDay());",
+                        "writeVarLong(out, %s.toLocalTime().toNanoOfDay());"),
+                "LocalDateTime.of(LocalDate.ofEpochDay(readVarLong(in)), LocalTime.ofNanoOfDay(readVarLong(in)))",
+                "LocalDateTime.of(2020, 1, 2, 3, 4, 5)",
+                Collections.singletonList("VarLong"),
+                "java.time.LocalDate",
+                "java.time.LocalTime");
+    }
+
+    private static void addCodec(
+            List<String> types,
+            List<String> writeLines,
+            String readExpression,
+            String sample,
+            List<String> helpers,
+            String... importedTypes) {
+        Codec codec = new Codec(writeLines, readExpression, sample, helpers, Arrays.asList(importedTypes));
+        for (String type : types) {
+            CODECS.put(type, codec);
+        }
+    }
+
+    private boolean useExternalizableFromRoot;
+
+    private String fixtureTargetProject;
+
+    private final FullyQualifiedJavaType serializable;
+
+    private final FullyQualifiedJavaType externalizable;
+
+    private final List<TopLevelClass> fixtures;
+
+    private final Set<String> skippedTypes;
+
+    private final Map<String, List<Field>> sampledFields;
+
+    private List<String> warnings;
+
+    public ExternalizablePlugin() {
+        super();
+        this.serializable = new FullyQualifiedJavaType("java.io.Serializable");
+        this.externalizable = new FullyQualifiedJavaType("java.io.Externalizable");
+        this.fixtures = new ArrayList<>();
+        this.skippedTypes = new HashSet<>();
+        this.sampledFields = new HashMap<>();
+    }
+
+    /**
+     * Sets plugin properties.
+     *
+     * @param properties The properties configured for this plugin
+     */
+    @Override
+    public void setProperties(Properties properties) {
+        super.setProperties(properties);
+        this.useExternalizableFromRoot = StringUtility.isTrue(properties.getProperty("useExternalizableFromRoot"));
+        this.fixtureTargetProject = properties.getProperty("fixtureTargetProject");
+    }
+
+    /**
+     * Validates the plugin configuration.
+     *
+     * @param warnings Warnings during validation will be added to this list
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        this.warnings = warnings;
+        return true;
+    }
+
+    /**
+     * Generates Externalizable methods for base record class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelBaseRecordClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        generateExternalizable(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Generates Externalizable methods for record with BLOBs class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelRecordWithBLOBsClassGenerated(
+            TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        generateExternalizable(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Generates Externalizable methods for primary key class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelPrimaryKeyClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        generateExternalizable(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Generates the round-trip fixtures of the table if fixtureTargetProject is set.
+     *
+     * @param introspectedTable The table introspected
+     * @return the generated fixtures
+     */
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+        List<GeneratedJavaFile> answer = fixtures.stream()
+                .map(fixture -> new GeneratedJavaFile(
+                        fixture,
+                        fixtureTargetProject,
+                        context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                        context.getJavaFormatter()))
+                .collect(Collectors.toList());
+        fixtures.clear();
+        return answer;
+    }
+
+    private void generateExternalizable(IntrospectedTable introspectedTable, TopLevelClass topLevelClass) {
+        if (!topLevelClass.getSuperInterfaceTypes().contains(serializable)) {
+            return;
+        }
+
+        List<Field> fields = topLevelClass.getFields().stream()
+                .filter(field -> !field.isStatic() && !field.isTransient())
+                .collect(Collectors.toList());
+        if (introspectedTable.isImmutable() || fields.stream().anyMatch(Field::isFinal)) {
+            // readExternal cannot assign final fields of immutable models
+            skip(topLevelClass, "it is immutable");
+            return;
+        }
+        // readExternal needs a public no-arg constructor, which constructor based models may lack
+        List<Method> constructors = topLevelClass.getMethods().stream()
+                .filter(Method::isConstructor)
+                .collect(Collectors.toList());
+        if (!constructors.isEmpty()
+                && constructors.stream()
+                        .noneMatch(constructor -> constructor.getParameters().isEmpty()
+                                && constructor.getVisibility() == JavaVisibility.PUBLIC)) {
+            skip(topLevelClass, "it has no public no-arg constructor");
+            return;
+        }
+
+        String superClass = topLevelClass
+                .getSuperClass()
+                .map(FullyQualifiedJavaType::getFullyQualifiedName)
+                .orElse(null);
+        boolean generatedSuperClass = superClass != null
+                && (superClass.equals(introspectedTable.getPrimaryKeyType())
+                        || superClass.equals(introspectedTable.getBaseRecordType()));
+        if (generatedSuperClass && skippedTypes.contains(superClass)) {
+            skippedTypes.add(topLevelClass.getType().getFullyQualifiedName());
+            return;
+        }
+        if (superClass != null && !generatedSuperClass && !useExternalizableFromRoot) {
+            // the fields of the root class would silently be dropped from the serialized form
+            skip(
+                    topLevelClass,
+                    "the fields of root class " + superClass
+                            + " are not serialized unless useExternalizableFromRoot is set");
+            return;
+        }
+        boolean callSuper = superClass != null;
+
+        FullyQualifiedJavaType objectOutput = new FullyQualifiedJavaType("java.io.ObjectOutput");
+        FullyQualifiedJavaType objectInput = new FullyQualifiedJavaType("java.io.ObjectInput");
+        FullyQualifiedJavaType ioException = new FullyQualifiedJavaType("java.io.IOException");
+        FullyQualifiedJavaType classNotFoundException = new FullyQualifiedJavaType("ClassNotFoundException");
+
+        Method writeExternal = new Method("writeExternal");
+        writeExternal.setVisibility(JavaVisibility.PUBLIC);
+        writeExternal.addAnnotation("@Override");
+        writeExternal.addParameter(new Parameter(objectOutput, "out"));
+        writeExternal.addException(ioException);
+
+        Method readExternal = new Method("readExternal");
+        readExternal.setVisibility(JavaVisibility.PUBLIC);
+        readExternal.addAnnotation("@Override");
+        readExternal.addParameter(new Parameter(objectInput, "in"));
+        readExternal.addException(ioException);
+        readExternal.addException(classNotFoundException);
+
+        addMethodComment(introspectedTable, topLevelClass, writeExternal);
+        addMethodComment(introspectedTable, topLevelClass, readExternal);
+
+        if (callSuper) {
+            writeExternal.addBodyLine("super.writeExternal(out);");
+            readExternal.addBodyLine("super.readExternal(in);");
+        }
+
+        List<Field> nullableFields =
+                fields.stream().filter(field -> isNullable(field.getType())).collect(Collectors.toList());
+        for (int i = 0; i < nullableFields.size(); i += 8) {
+            List<Field> group = nullableFields.subList(i, Math.min(i + 8, nullableFields.size()));
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 0; bit < group.size(); bit++) {
+                sb.append(bit == 0 ? "" : " | ")
+                        .append("(this.")
+                        .append(group.get(bit).getName())
+                        .append(" == null ? ")
+                        .append(String.format("0x%02x", 1 << bit))
+                        .append(" : 0)");
+            }
+            writeExternal.addBodyLine("out.writeByte(" + sb + ");");
+            readExternal.addBodyLine("int nulls" + (i / 8) + " = in.readUnsignedByte();");
+        }
+
+        Set<String> helpers = new LinkedHashSet<>();
+        for (Field field : fields) {
+            // qualified, as a field may be named like the parameters in and out
+            String name = "this." + field.getName();
+            FullyQualifiedJavaType type = field.getType();
+            Codec codec = CODECS.get(type.getFullyQualifiedName());
+            boolean nullable = isNullable(type);
+
+            if (nullable) {
+                int index = nullableFields.indexOf(field);
+                writeExternal.addBodyLine("if (" + name + " != null) {");
+                readExternal.addBodyLine(
+                        "if ((nulls" + (index / 8) + " & " + String.format("0x%02x", 1 << (index % 8)) + ") == 0) {");
+            }
+            if (codec != null) {
+                codec.writeLines.forEach(line -> writeExternal.addBodyLine(String.format(line, name)));
+                readExternal.addBodyLine(name + " = " + codec.readExpression + ";");
+                helpers.addAll(codec.helpers);
+                codec.importedTypes.forEach(
+                        importedType -> topLevelClass.addImportedType(new FullyQualifiedJavaType(importedType)));
+            } else {
+                writeExternal.addBodyLine("out.writeObject(" + name + ");");
+                readExternal.addBodyLine(name + " = (" + type.getShortName() + ") in.readObject();");
+            }
+            if (nullable) {
+                writeExternal.addBodyLine("}");
+                readExternal.addBodyLine("}");
+            }
+        }
+
+        topLevelClass.addSuperInterface(externalizable);
+        topLevelClass.addImportedType(externalizable);
+        topLevelClass.addImportedType(objectOutput);
+        topLevelClass.addImportedType(objectInput);
+        topLevelClass.addImportedType(ioException);
+        topLevelClass.addMethod(writeExternal);
+        topLevelClass.addMethod(readExternal);
+        for (String helper : helpers) {
+            addHelperMethods(introspectedTable, topLevelClass, helper, objectOutput, objectInput, ioException);
+        }
+
+        if (StringUtility.stringHasValue(fixtureTargetProject)) {
+            fixtures.add(generateFixture(introspectedTable, topLevelClass, fields, superClass));
+        }
+    }
+
+    private void skip(TopLevelClass topLevelClass, String reason) {
+        warnings.add("Plugin ExternalizablePlugin skipped class " + topLevelClass.getType() + " because " + reason);
+        skippedTypes.add(topLevelClass.getType().getFullyQualifiedName());
+    }
+
+    private void addHelperMethods(
+            IntrospectedTable introspectedTable,
+            TopLevelClass topLevelClass,
+            String helper,
+            FullyQualifiedJavaType objectOutput,
+            FullyQualifiedJavaType objectInput,
+            FullyQualifiedJavaType ioException) {
+        Method write = new Method("write" + helper);
+        write.setVisibility(JavaVisibility.PRIVATE);
+        write.setStatic(true);
+        write.addParameter(new Parameter(objectOutput, "out"));
+        write.addException(ioException);
+
+        Method read = new Method("read" + helper);
+        read.setVisibility(JavaVisibility.PRIVATE);
+        read.setStatic(true);
+        read.addParameter(new Parameter(objectInput, "in"));
+        read.addException(ioException);
+
+        switch (helper) {
+            case "VarInt":
+                write.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "value"));
+                write.addBodyLine("int zigzag = (value << 1) ^ (value >> 31);");
+                write.addBodyLine("while ((zigzag & ~0x7F) != 0) {");
+                write.addBodyLine("out.writeByte((zigzag & 0x7F) | 0x80);");
+                write.addBodyLine("zigzag >>>= 7;");
+                write.addBodyLine("}");
+                write.addBodyLine("out.writeByte(zigzag);");
+                read.setReturnType(FullyQualifiedJavaType.getIntInstance());
+                read.addBodyLine("int zigzag = 0;");
+                read.addBodyLine("int b;");
+                read.addBodyLine("for (int shift = 0; ; shift += 7) {");
+                read.addBodyLine("b = in.readUnsignedByte();");
+                read.addBodyLine("zigzag |= (b & 0x7F) << shift;");
+                read.addBodyLine("if ((b & 0x80) == 0) {");
+                read.addBodyLine("return (zigzag >>> 1) ^ -(zigzag & 1);");
+                read.addBodyLine("}");
+                read.addBodyLine("}");
+                break;
+            case "VarLong":
+                write.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "value"));
+                write.addBodyLine("long zigzag = (value << 1) ^ (value >> 63);");
+                write.addBodyLine("while ((zigzag & ~0x7FL) != 0) {");
+                write.addBodyLine("out.writeByte((int) (zigzag & 0x7F) | 0x80);");
+                write.addBodyLine("zigzag >>>= 7;");
+                write.addBodyLine("}");
+                write.addBodyLine("out.writeByte((int) zigzag);");
+                read.setReturnType(new FullyQualifiedJavaType("long"));
+                read.addBodyLine("long zigzag = 0;");
+                read.addBodyLine("int b;");
+                read.addBodyLine("for (int shift = 0; ; shift += 7) {");
+                read.addBodyLine("b = in.readUnsignedByte();");
+                read.addBodyLine("zigzag |= (long) (b & 0x7F) << shift;");
+                read.addBodyLine("if ((b & 0x80) == 0) {");
+                read.addBodyLine("return (zigzag >>> 1) ^ -(zigzag & 1);");
+                read.addBodyLine("}");
+                read.addBodyLine("}");
+                break;
+            case "Bytes":
+                write.addParameter(new Parameter(new FullyQualifiedJavaType("byte[]"), "value"));
+                write.addBodyLine("writeVarInt(out, value.length);");
+                write.addBodyLine("out.write(value);");
+                read.setReturnType(new FullyQualifiedJavaType("byte[]"));
+                read.addBodyLine("byte[] value = new byte[readVarInt(in)];");
+                read.addBodyLine("in.readFully(value);");
+                read.addBodyLine("return value;");
+                break;
+            case "String":
+                write.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "value"));
+                write.addBodyLine("writeBytes(out, value.getBytes(StandardCharsets.UTF_8));");
+                read.setReturnType(FullyQualifiedJavaType.getStringInstance());
+                read.addBodyLine("return new String(readBytes(in), StandardCharsets.UTF_8);");
+                break;
+            default:
+                return;
+        }
+
+        addMethodComment(introspectedTable, topLevelClass, write);
+        addMethodComment(introspectedTable, topLevelClass, read);
+        topLevelClass.addMethod(write);
+        topLevelClass.addMethod(read);
+    }
+
+    private TopLevelClass generateFixture(
+            IntrospectedTable introspectedTable, TopLevelClass topLevelClass, List<Field> fields, String superClass) {
+        FullyQualifiedJavaType modelType = topLevelClass.getType();
+        FullyQualifiedJavaType ioException = new FullyQualifiedJavaType("java.io.IOException");
+        FullyQualifiedJavaType classNotFoundException = new FullyQualifiedJavaType("ClassNotFoundException");
+
+        TopLevelClass fixture = new TopLevelClass(modelType.getFullyQualifiedName() + "ExternalizableFixture");
+        fixture.setVisibility(JavaVisibility.PUBLIC);
+        fixture.setFinal(true);
+        fixture.addImportedType(modelType);
+        fixture.addImportedType(ioException);
+        fixture.addImportedType(new FullyQualifiedJavaType("java.io.ByteArrayInputStream"));
+        fixture.addImportedType(new FullyQualifiedJavaType("java.io.ByteArrayOutputStream"));
+        fixture.addImportedType(new FullyQualifiedJavaType("java.io.ObjectInputStream"));
+        fixture.addImportedType(new FullyQualifiedJavaType("java.io.ObjectOutputStream"));
+        fixture.addImportedType(new FullyQualifiedJavaType("java.util.Arrays"));
+        fixture.addImportedType(new FullyQualifiedJavaType("java.util.Objects"));
+        context.getCommentGenerator().addJavaFileComment(fixture);
+        context.getCommentGenerator().addClassComment(fixture, introspectedTable);
+
+        Method constructor = new Method(modelType.getShortName() + "ExternalizableFixture");
+        constructor.setConstructor(true);
+        constructor.setVisibility(JavaVisibility.PRIVATE);
+        fixture.addMethod(constructor);
+
+        // generated super classes of the same table come first, the root class is not sampled
+        List<Field> sampledFields = new ArrayList<>(
+                superClass == null
+                        ? Collections.emptyList()
+                        : this.sampledFields.getOrDefault(superClass, Collections.emptyList()));
+        fields.stream()
+                .filter(field -> CODECS.containsKey(field.getType().getFullyQualifiedName()))
+                .filter(field -> topLevelClass.getMethods().stream().anyMatch(method -> method.getName()
+                        .equals(JavaBeansUtil.getSetterMethodName(field.getName()))))
+                .forEach(sampledFields::add);
+        this.sampledFields.put(modelType.getFullyQualifiedName(), sampledFields);
+
+        Method sample = new Method("sample");
+        sample.setVisibility(JavaVisibility.PUBLIC);
+        sample.setStatic(true);
+        sample.setReturnType(modelType);
+        sample.addBodyLine(modelType.getShortName() + " record = new " + modelType.getShortName() + "();");
+        for (Field field : sampledFields) {
+            Codec codec = CODECS.get(field.getType().getFullyQualifiedName());
+            sample.addBodyLine(
+                    "record." + JavaBeansUtil.getSetterMethodName(field.getName()) + "(" + codec.sample + ");");
+            fixture.addImportedType(field.getType());
+        }
+        sample.addBodyLine("return record;");
+        fixture.addMethod(sample);
+
+        Method roundTrip = new Method("roundTrip");
+        roundTrip.setVisibility(JavaVisibility.PUBLIC);
+        roundTrip.setStatic(true);
+        roundTrip.setReturnType(modelType);
+        roundTrip.addParameter(new Parameter(modelType, "record"));
+        roundTrip.addException(ioException);
+        roundTrip.addException(classNotFoundException);
+        roundTrip.addBodyLine("return (" + modelType.getShortName() + ") deserialize(serialize(record));");
+        fixture.addMethod(roundTrip);
+
+        Method assertRoundTrip = new Method("assertRoundTrip");
+        assertRoundTrip.setVisibility(JavaVisibility.PUBLIC);
+        assertRoundTrip.setStatic(true);
+        assertRoundTrip.addException(ioException);
+        assertRoundTrip.addException(classNotFoundException);
+        assertRoundTrip.addBodyLine(modelType.getShortName() + " expected = sample();");
+        assertRoundTrip.addBodyLine(modelType.getShortName() + " actual = roundTrip(expected);");
+        for (Field field : sampledFields) {
+            String getter = JavaBeansUtil.getGetterMethodName(field.getName(), field.getType()) + "()";
+            String compare = "byte[]".equals(field.getType().getFullyQualifiedName())
+                    ? "Arrays.equals(expected." + getter + ", actual." + getter + ")"
+                    : "Objects.equals(expected." + getter + ", actual." + getter + ")";
+            assertRoundTrip.addBodyLine("if (!" + compare + ") {");
+            assertRoundTrip.addBodyLine(
+                    "throw new AssertionError(\"" + field.getName() + " differs after round trip\");");
+            assertRoundTrip.addBodyLine("}");
+        }
+        fixture.addMethod(assertRoundTrip);
+
+        fixture.addInnerClass(generateDefaultForm(modelType, sampledFields));
+        addBenchmarkMethods(fixture, modelType, ioException, classNotFoundException);
+
+        return fixture;
+    }
+
+    private InnerClass generateDefaultForm(FullyQualifiedJavaType modelType, List<Field> sampledFields) {
+        InnerClass defaultForm = new InnerClass("DefaultForm");
+        defaultForm.setVisibility(JavaVisibility.PRIVATE);
+        defaultForm.setStatic(true);
+        defaultForm.setFinal(true);
+        defaultForm.addSuperInterface(serializable);
+
+        Field serialVersionUID = new Field("serialVersionUID", new FullyQualifiedJavaType("long"));
+        serialVersionUID.setVisibility(JavaVisibility.PRIVATE);
+        serialVersionUID.setStatic(true);
+        serialVersionUID.setFinal(true);
+        serialVersionUID.setInitializationString("1L");
+        defaultForm.addField(serialVersionUID);
+
+        Method constructor = new Method("DefaultForm");
+        constructor.setConstructor(true);
+        constructor.addParameter(new Parameter(modelType, "record"));
+        for (Field field : sampledFields) {
+            Field copy = new Field(field.getName(), field.getType());
+            copy.setVisibility(JavaVisibility.PRIVATE);
+            copy.setFinal(true);
+            defaultForm.addField(copy);
+            constructor.addBodyLine("this." + field.getName() + " = record."
+                    + JavaBeansUtil.getGetterMethodName(field.getName(), field.getType()) + "();");
+        }
+        defaultForm.addMethod(constructor);
+        return defaultForm;
+    }
+
+    private void addBenchmarkMethods(
+            TopLevelClass fixture,
+            FullyQualifiedJavaType modelType,
+            FullyQualifiedJavaType ioException,
+            FullyQualifiedJavaType classNotFoundException) {
+        fixture.addImportedType(serializable);
+
+        Method benchmark = new Method("benchmark");
+        benchmark.setVisibility(JavaVisibility.PUBLIC);
+        benchmark.setStatic(true);
+        benchmark.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        benchmark.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "iterations"));
+        benchmark.addException(ioException);
+        benchmark.addException(classNotFoundException);
+        benchmark.addBodyLine(modelType.getShortName() + " record = sample();");
+        benchmark.addBodyLine("DefaultForm defaultForm = new DefaultForm(record);");
+        benchmark.addBodyLine("measure(record, iterations);");
+        benchmark.addBodyLine("measure(defaultForm, iterations);");
+        benchmark.addBodyLine("long externalizableTime = measure(record, iterations);");
+        benchmark.addBodyLine("long defaultTime = measure(defaultForm, iterations);");
+        benchmark.addBodyLine("return \"" + modelType.getShortName()
+                + " externalizable: \" + serialize(record).length + \" bytes, \" + externalizableTime");
+        benchmark.addBodyLine(
+                "        + \" ns/op, default serialization: \" + serialize(defaultForm).length + \" bytes, \"");
+        benchmark.addBodyLine("        + defaultTime + \" ns/op\";");
+        fixture.addMethod(benchmark);
+
+        Method main = new Method("main");
+        main.setVisibility(JavaVisibility.PUBLIC);
+        main.setStatic(true);
+        main.addParameter(new Parameter(new FullyQualifiedJavaType("String[]"), "args"));
+        main.addException(ioException);
+        main.addException(classNotFoundException);
+        main.addBodyLine("System.out.println(benchmark(args.length > 0 ? Integer.parseInt(args[0]) : 100000));");
+        fixture.addMethod(main);
+
+        Method measure = new Method("measure");
+        measure.setVisibility(JavaVisibility.PRIVATE);
+        measure.setStatic(true);
+        measure.setReturnType(new FullyQualifiedJavaType("long"));
+        measure.addParameter(new Parameter(serializable, "object"));
+        measure.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "iterations"));
+        measure.addException(ioException);
+        measure.addException(classNotFoundException);
+        measure.addBodyLine("long start = System.nanoTime();");
+        measure.addBodyLine("for (int i = 0; i < iterations; i++) {");
+        measure.addBodyLine("deserialize(serialize(object));");
+        measure.addBodyLine("}");
+        measure.addBodyLine("return (System.nanoTime() - start) / Math.max(1, iterations);");
+        fixture.addMethod(measure);
+
+        Method serialize = new Method("serialize");
+        serialize.setVisibility(JavaVisibility.PRIVATE);
+        serialize.setStatic(true);
+        serialize.setReturnType(new FullyQualifiedJavaType("byte[]"));
+        serialize.addParameter(new Parameter(serializable, "object"));
+        serialize.addException(ioException);
+        serialize.addBodyLine("ByteArrayOutputStream bytes = new ByteArrayOutputStream();");
+        serialize.addBodyLine("try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {");
+        serialize.addBodyLine("out.writeObject(object);");
+        serialize.addBodyLine("}");
+        serialize.addBodyLine("return bytes.toByteArray();");
+        fixture.addMethod(serialize);
+
+        Method deserialize = new Method("deserialize");
+        deserialize.setVisibility(JavaVisibility.PRIVATE);
+        deserialize.setStatic(true);
+        deserialize.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        deserialize.addParameter(new Parameter(new FullyQualifiedJavaType("byte[]"), "bytes"));
+        deserialize.addException(ioException);
+        deserialize.addException(classNotFoundException);
+        deserialize.addBodyLine(
+                "try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {");
+        deserialize.addBodyLine("return in.readObject();");
+        deserialize.addBodyLine("}");
+        fixture.addMethod(deserialize);
+    }
+
+    private boolean isNullable(FullyQualifiedJavaType type) {
+        return !type.isPrimitive() || type.isArray();
+    }
+
+    private void addMethodComment(IntrospectedTable introspectedTable, TopLevelClass topLevelClass, Method method) {
+        if (introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL) {
+            context.getCommentGenerator()
+                    .addGeneralMethodAnnotation(method, introspectedTable, topLevelClass.getImportedTypes());
+        } else {
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * MyBatis Generator plugin to generate immutable models mapped through their constructors.
+ * <p>
+ * This plugin enables the {@code immutable} property of MyBatis Generator for every table that does
+ * not configure it explicitly. The models then have an all-args constructor and getters only, and
+ * result maps use {@code <constructor>/<arg>} elements, or {@code @ConstructorArgs} for annotated
+ * mappers, instead of setter calls. In addition, the instance fields of the models are made final
+ * so that rows can be shared across threads once they are mapped. When the base record carries BLOB
+ * columns, MyBatis Generator adds a second constructor without them, which then assigns null to the
+ * BLOB fields.
+ * <p>
+ * Tables can opt out by setting the {@code immutable} property to false on the table or on the
+ * java model generator.
+ */
+public class ImmutableModelPlugin extends PluginAdapter {
+
+    /**
+     * Validates the plugin configuration.
+     *
+     * @param warnings Warnings during validation will be added to this list
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    /**
+     * Enables the immutable property of the table unless it is configured explicitly.
+     *
+     * @param introspectedTable The table introspected
+     */
+    @Override
+    public void initialized(IntrospectedTable introspectedTable) {
+        boolean configured =
+                introspectedTable.getTableConfiguration().getProperties().containsKey(PropertyRegistry.ANY_IMMUTABLE)
+                        || context.getJavaModelGeneratorConfiguration()
+                                .getProperties()
+                                .containsKey(PropertyRegistry.ANY_IMMUTABLE);
+        if (!configured) {
+            introspectedTable.getTableConfiguration().addProperty(PropertyRegistry.ANY_IMMUTABLE, "true");
+        }
+    }
+
+    /**
+     * Makes the instance fields of immutable models final.
+     *
+     * @param field The field being generated
+     * @param topLevelClass The class containing the field
+     * @param introspectedColumn The column of the field
+     * @param introspectedTable The table introspected
+     * @param modelClassType The type of the model class
+     * @return always true
+     */
+    @Override
+    public boolean modelFieldGenerated(
+            Field field,
+            TopLevelClass topLevelClass,
+            IntrospectedColumn introspectedColumn,
+            IntrospectedTable introspectedTable,
+            ModelClassType modelClassType) {
+        if (introspectedTable.isImmutable() && !field.isStatic()) {
+            field.setFinal(true);
+        }
+        return true;
+    }
+
+    /**
+     * Assigns null to the BLOB fields which are not parameters of a constructor, so that the final
+     * fields are always initialized.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelBaseRecordClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        if (!introspectedTable.isImmutable()) {
+            return true;
+        }
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getBLOBColumns()) {
+            String property = introspectedColumn.getJavaProperty();
+            boolean hasField = topLevelClass.getFields().stream()
+                    .anyMatch(field -> field.isFinal() && field.getName().equals(property));
+            if (!hasField) {
+                continue;
+            }
+            topLevelClass.getMethods().stream()
+                    .filter(Method::isConstructor)
+                    .filter(constructor -> constructor.getParameters().stream()
+                            .noneMatch(parameter -> parameter.getName().equals(property)))
+                    .forEach(constructor -> constructor.addBodyLine("this." + property + " = null;"));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,306 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.internal.rules.Rules;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.internal.util.StringUtility;
+
+/**
+ * A plugin to generate fixed SQL finder methods from the index metadata of each table.
+ * Finders use static statements instead of Example based dynamic SQL.
+ * <p>
+ * For example, if there is a non-unique index on "tenant_id, created_at", this plugin
+ * will create "selectByTenantIdAndCreatedAt" that returns a List of records. Finders over
+ * a unique index return an Optional and use the same prefix as {@link OptionalPlugin},
+ * such as "selectOptionalByEmail". Indexes covering exactly the primary key are skipped.
+ * <p>
+ * Only XML backed mappers of the MyBatis3 and MyBatis3Simple runtimes are supported. Tables
+ * without a generated result map get no finders, and the skip is reported as a warning.
+ */
+public class IndexFinderPlugin extends PluginAdapter {
+
+    private static final String PROPERTY_OPTIONAL_METHOD_PREFIX = "optionalMethodPrefix";
+
+    private static class Index {
+
+        private final boolean unique;
+
+        private final Map<Short, IntrospectedColumn> columns = new TreeMap<>();
+
+        private boolean resolved = true;
+
+        private boolean partial;
+
+        Index(boolean unique) {
+            this.unique = unique;
+        }
+
+        List<IntrospectedColumn> getColumns() {
+            return new ArrayList<>(columns.values());
+        }
+    }
+
+    private final Map<IntrospectedTable, List<Index>> indexes = new HashMap<>();
+
+    private String optionalMethodPrefix;
+
+    private List<String> warnings;
+
+    private boolean introspected;
+
+    /**
+     * Validates the plugin configuration. This method will read the optionalMethodPrefix
+     * property from the plugin configuration, defaulting to "selectOptional" if not specified.
+     *
+     * @param warnings The list of warnings to which problems should be added
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        this.warnings = warnings;
+        optionalMethodPrefix = properties.getProperty(PROPERTY_OPTIONAL_METHOD_PREFIX, "selectOptional");
+        return true;
+    }
+
+    /**
+     * Reads the index metadata of all tables of the context, over a single connection, when
+     * the first table is initialized. Finders of a table which has no result map to reference
+     * are skipped.
+     *
+     * @param introspectedTable The introspected table information
+     */
+    @Override
+    public void initialized(IntrospectedTable introspectedTable) {
+        if (!introspected) {
+            introspected = true;
+            introspectAllIndexes();
+        }
+
+        Rules rules = introspectedTable.getRules();
+        if (indexes.containsKey(introspectedTable)
+                && !rules.generateBaseResultMap()
+                && !rules.generateResultMapWithBLOBs()) {
+            indexes.remove(introspectedTable);
+            warnings.add("Plugin IndexFinderPlugin skipped the finders of table "
+                    + introspectedTable.getFullyQualifiedTable()
+                    + " because no result map is generated for it");
+        }
+    }
+
+    /**
+     * Adds a finder method for each index to the mapper interface.
+     *
+     * @param interfaze The mapper interface
+     * @param introspectedTable The introspected table information
+     * @return always true to indicate the interface should be generated
+     */
+    @Override
+    public boolean clientGenerated(Interface interfaze, IntrospectedTable introspectedTable) {
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+
+        for (Index index : indexes.getOrDefault(introspectedTable, Collections.emptyList())) {
+            List<IntrospectedColumn> columns = index.getColumns();
+
+            Method method = new Method(getStatementId(index));
+            method.setAbstract(true);
+            if (index.unique) {
+                method.setReturnType(
+                        new FullyQualifiedJavaType("Optional<" + recordType.getFullyQualifiedName() + ">"));
+                interfaze.addImportedType(new FullyQualifiedJavaType("java.util.Optional"));
+            } else {
+                FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+                listType.addTypeArgument(recordType);
+                method.setReturnType(listType);
+                interfaze.addImportedType(listType);
+            }
+            interfaze.addImportedType(recordType);
+
+            for (IntrospectedColumn column : columns) {
+                FullyQualifiedJavaType type = column.getFullyQualifiedJavaType();
+                Parameter parameter = new Parameter(type, column.getJavaProperty());
+                if (columns.size() > 1) {
+                    parameter.addAnnotation("@Param(\"" + column.getJavaProperty() + "\")");
+                    interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param"));
+                }
+                method.addParameter(parameter);
+                interfaze.addImportedType(type);
+            }
+
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+            interfaze.addMethod(method);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a select statement for each index to the mapper XML.
+     *
+     * @param document The generated mapper XML document
+     * @param introspectedTable The introspected table information
+     * @return always true to indicate the document should be generated
+     */
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        String resultMapId = introspectedTable.getRules().generateResultMapWithBLOBs()
+                ? introspectedTable.getResultMapWithBLOBsId()
+                : introspectedTable.getBaseResultMapId();
+
+        for (Index index : indexes.getOrDefault(introspectedTable, Collections.emptyList())) {
+            XmlElement answer = new XmlElement("select");
+            answer.addAttribute(new Attribute("id", getStatementId(index)));
+            answer.addAttribute(new Attribute("resultMap", resultMapId));
+            context.getCommentGenerator().addComment(answer);
+
+            answer.addElement(new TextElement("select"));
+            StringBuilder sb = new StringBuilder();
+            List<IntrospectedColumn> allColumns = introspectedTable.getAllColumns();
+            for (int i = 0; i < allColumns.size(); i++) {
+                sb.append(MyBatis3FormattingUtilities.getSelectListPhrase(allColumns.get(i)));
+                if (i < allColumns.size() - 1) {
+                    sb.append(", ");
+                }
+            }
+            answer.addElement(new TextElement(sb.toString()));
+            answer.addElement(
+                    new TextElement("from " + introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()));
+
+            boolean and = false;
+            for (IntrospectedColumn column : index.getColumns()) {
+                sb.setLength(0);
+                sb.append(and ? "  and " : "where ")
+                        .append(MyBatis3FormattingUtilities.getAliasedEscapedColumnName(column))
+                        .append(" = ")
+                        .append(MyBatis3FormattingUtilities.getParameterClause(column));
+                answer.addElement(new TextElement(sb.toString()));
+                and = true;
+            }
+
+            document.getRootElement().addElement(answer);
+        }
+        return true;
+    }
+
+    private void introspectAllIndexes() {
+        List<IntrospectedTable> introspectedTables = context.getIntrospectedTables().stream()
+                .filter(this::isSupported)
+                .collect(Collectors.toList());
+        if (introspectedTables.isEmpty()) {
+            return;
+        }
+
+        Connection connection = null;
+        try {
+            connection = context.getConnection();
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+            for (IntrospectedTable introspectedTable : introspectedTables) {
+                try {
+                    indexes.put(introspectedTable, introspectIndexes(databaseMetaData, introspectedTable));
+                } catch (SQLException e) {
+                    warnings.add("Plugin IndexFinderPlugin cannot read index metadata of table "
+                            + introspectedTable.getFullyQualifiedTable() + ": " + e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            warnings.add("Plugin IndexFinderPlugin cannot read index metadata: " + e.getMessage());
+        } finally {
+            context.closeConnection(connection);
+        }
+    }
+
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() != IntrospectedTable.TargetRuntime.MYBATIS3
+                || context.getSqlMapGeneratorConfiguration() == null) {
+            return false;
+        }
+        JavaClientGeneratorConfiguration clientConfiguration = context.getJavaClientGeneratorConfiguration();
+        return clientConfiguration == null || !"ANNOTATEDMAPPER".equals(clientConfiguration.getConfigurationType());
+    }
+
+    private List<Index> introspectIndexes(DatabaseMetaData databaseMetaData, IntrospectedTable introspectedTable)
+            throws SQLException {
+        FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
+        Map<String, Index> indexByName = new LinkedHashMap<>();
+
+        try (ResultSet rs = databaseMetaData.getIndexInfo(
+                table.getIntrospectedCatalog(),
+                table.getIntrospectedSchema(),
+                table.getIntrospectedTableName(),
+                false,
+                true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexName == null || rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                boolean unique = !rs.getBoolean("NON_UNIQUE");
+                Index index = indexByName.computeIfAbsent(indexName, name -> new Index(unique));
+                // rows outside the predicate of a partial index are neither unique nor indexed
+                if (StringUtility.stringHasValue(rs.getString("FILTER_CONDITION"))) {
+                    index.partial = true;
+                }
+                Optional<IntrospectedColumn> column =
+                        Optional.ofNullable(rs.getString("COLUMN_NAME")).flatMap(introspectedTable::getColumn);
+                if (column.isPresent()) {
+                    index.columns.put(rs.getShort("ORDINAL_POSITION"), column.get());
+                } else {
+                    index.resolved = false;
+                }
+            }
+        }
+
+        List<Index> answer = new ArrayList<>();
+        List<List<IntrospectedColumn>> seen = new ArrayList<>();
+        seen.add(introspectedTable.getPrimaryKeyColumns());
+        indexByName.values().stream()
+                .filter(index -> index.resolved && !index.partial && !index.columns.isEmpty())
+                .sorted((left, right) -> Boolean.compare(right.unique, left.unique))
+                .forEach(index -> {
+                    if (!seen.contains(index.getColumns())) {
+                        seen.add(index.getColumns());
+                        answer.add(index);
+                    }
+                });
+        return answer;
+    }
+
+    private String getStatementId(Index index) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(index.unique ? optionalMethodPrefix : "select").append("By");
+        boolean and = false;
+        for (IntrospectedColumn column : index.getColumns()) {
+            if (and) {
+                sb.append("And");
+            }
+            sb.append(JavaBeansUtil.getFirstCharacterUppercase(column.getJavaProperty()));
+            and = true;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,358 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.StringUtility;
+
+/**
+ * MyBatis Generator plugin to generate a reflection-free writeJson(Appendable) method without serialVersionUID field.
+ * <p>
+ * Field names are written as precomputed literals. Numbers and booleans are written as JSON literals,
+ * {@code java.util.Date} as epoch milliseconds, {@code byte[]} as Base64 and any other type as an escaped
+ * string of its {@code toString()} value, which follows the defaults of Jackson.
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>useWriteJsonFromRoot: Whether to include the fields written by writeJsonFields of the root class (true/false)</li>
+ *   <li>generateJacksonSerializer: Whether to generate a Jackson JsonSerializer delegating to writeJson (true/false)</li>
+ * </ul>
+ */
+public class JsonWriterPlugin extends PluginAdapter {
+
+    private static final Set<String> NUMBER_TYPES = new HashSet<>(Arrays.asList(
+            "long",
+            "int",
+            "short",
+            "byte",
+            "java.lang.Long",
+            "java.lang.Integer",
+            "java.lang.Short",
+            "java.lang.Byte",
+            "java.math.BigInteger",
+            "java.math.BigDecimal"));
+
+    private static final Set<String> FLOATING_POINT_TYPES =
+            new HashSet<>(Arrays.asList("float", "double", "java.lang.Float", "java.lang.Double"));
+
+    private boolean useWriteJsonFromRoot;
+
+    private boolean generateJacksonSerializer;
+
+    private final FullyQualifiedJavaType serializable;
+
+    private final Field serialVersionUID;
+
+    private final List<TopLevelClass> serializers;
+
+    public JsonWriterPlugin() {
+        super();
+        this.serializable = new FullyQualifiedJavaType("java.io.Serializable");
+        this.serialVersionUID = new Field("serialVersionUID", new FullyQualifiedJavaType("long"));
+        this.serializers = new ArrayList<>();
+    }
+
+    /**
+     * Sets plugin properties.
+     *
+     * @param properties The properties configured for this plugin
+     */
+    @Override
+    public void setProperties(Properties properties) {
+        super.setProperties(properties);
+        this.useWriteJsonFromRoot = StringUtility.isTrue(properties.getProperty("useWriteJsonFromRoot"));
+        this.generateJacksonSerializer = StringUtility.isTrue(properties.getProperty("generateJacksonSerializer"));
+    }
+
+    /**
+     * Validates the plugin configuration.
+     *
+     * @param warnings Warnings during validation will be added to this list
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    /**
+     * Generates writeJson method for base record class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelBaseRecordClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        generateWriteJson(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Generates writeJson method for record with BLOBs class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelRecordWithBLOBsClassGenerated(
+            TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        generateWriteJson(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Generates writeJson method for primary key class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelPrimaryKeyClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        generateWriteJson(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Generates the Jackson serializers of the table if generateJacksonSerializer is set.
+     *
+     * @param introspectedTable The table introspected
+     * @return the generated serializers
+     */
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+        List<GeneratedJavaFile> answer = serializers.stream()
+                .map(serializer -> new GeneratedJavaFile(
+                        serializer,
+                        context.getJavaModelGeneratorConfiguration().getTargetProject(),
+                        context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                        context.getJavaFormatter()))
+                .collect(Collectors.toList());
+        serializers.clear();
+        return answer;
+    }
+
+    private void generateWriteJson(IntrospectedTable introspectedTable, TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType appendable = new FullyQualifiedJavaType("java.lang.Appendable");
+        FullyQualifiedJavaType ioException = new FullyQualifiedJavaType("java.io.IOException");
+        topLevelClass.addImportedType(ioException);
+
+        boolean hasSerializable = topLevelClass.getSuperInterfaceTypes().contains(serializable);
+        boolean generatedSuperClass = topLevelClass
+                .getSuperClass()
+                .map(superClass -> superClass.getFullyQualifiedName().equals(introspectedTable.getPrimaryKeyType())
+                        || superClass.getFullyQualifiedName().equals(introspectedTable.getBaseRecordType()))
+                .orElse(false);
+        boolean callSuper = generatedSuperClass
+                || (useWriteJsonFromRoot && topLevelClass.getSuperClass().isPresent());
+
+        // writeJson is inherited only from a generated class of the same table
+        if (!generatedSuperClass) {
+            Method writeJson = new Method("writeJson");
+            writeJson.setVisibility(JavaVisibility.PUBLIC);
+            writeJson.addParameter(new Parameter(appendable, "out"));
+            writeJson.addException(ioException);
+            addMethodComment(introspectedTable, topLevelClass, writeJson);
+            writeJson.addBodyLine("out.append('{');");
+            writeJson.addBodyLine("writeJsonFields(out, true);");
+            writeJson.addBodyLine("out.append('}');");
+            topLevelClass.addMethod(writeJson);
+        }
+
+        Method writeJsonFields = new Method("writeJsonFields");
+        writeJsonFields.setVisibility(JavaVisibility.PROTECTED);
+        writeJsonFields.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        writeJsonFields.addParameter(new Parameter(appendable, "out"));
+        writeJsonFields.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "first"));
+        writeJsonFields.addException(ioException);
+        if (callSuper) {
+            writeJsonFields.addAnnotation("@Override");
+        }
+        addMethodComment(introspectedTable, topLevelClass, writeJsonFields);
+
+        List<Field> fields = topLevelClass.getFields().stream()
+                .filter(field -> !hasSerializable || !isSerialVersionUID(field))
+                .collect(Collectors.toList());
+
+        String firstVariable = "first";
+        if (callSuper) {
+            writeJsonFields.addBodyLine("boolean empty = super.writeJsonFields(out, first);");
+            firstVariable = "empty";
+        }
+
+        boolean needsStringWriter = false;
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            String literal = "\\\"" + field.getName() + "\\\":";
+            if (i == 0) {
+                writeJsonFields.addBodyLine(
+                        "out.append(" + firstVariable + " ? \"" + literal + "\" : \"," + literal + "\");");
+            } else {
+                writeJsonFields.addBodyLine("out.append(\"," + literal + "\");");
+            }
+            needsStringWriter |= addWriteValueLines(topLevelClass, writeJsonFields, field);
+        }
+        writeJsonFields.addBodyLine(fields.isEmpty() ? "return " + firstVariable + ";" : "return false;");
+        topLevelClass.addMethod(writeJsonFields);
+
+        if (needsStringWriter) {
+            topLevelClass.addMethod(generateWriteJsonString(introspectedTable, topLevelClass, appendable, ioException));
+        }
+
+        if (generateJacksonSerializer) {
+            generateJsonSerializer(introspectedTable, topLevelClass);
+        }
+    }
+
+    private boolean addWriteValueLines(TopLevelClass topLevelClass, Method method, Field field) {
+        // qualified, as a field may be named like the parameters out and first or the local empty
+        String name = "this." + field.getName();
+        FullyQualifiedJavaType type = field.getType();
+        String typeName = type.getFullyQualifiedName();
+        boolean nullable = !type.isPrimitive() || type.isArray();
+        boolean usesStringWriter = false;
+
+        if (nullable) {
+            method.addBodyLine("if (" + name + " == null) {");
+            method.addBodyLine("out.append(\"null\");");
+            method.addBodyLine("} else {");
+        }
+
+        if (NUMBER_TYPES.contains(typeName)) {
+            method.addBodyLine("out.append(String.valueOf(" + name + "));");
+        } else if (FLOATING_POINT_TYPES.contains(typeName)) {
+            method.addBodyLine("out.append(Double.isFinite(" + name + ") ? String.valueOf(" + name + ") : \"\\\"\" + "
+                    + name + " + \"\\\"\");");
+        } else if ("boolean".equals(typeName) || "java.lang.Boolean".equals(typeName)) {
+            method.addBodyLine("out.append(" + name + " ? \"true\" : \"false\");");
+        } else if ("java.util.Date".equals(typeName)) {
+            method.addBodyLine("out.append(String.valueOf(" + name + ".getTime()));");
+        } else if ("byte[]".equals(typeName)) {
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Base64"));
+            method.addBodyLine(
+                    "out.append('\"').append(Base64.getEncoder().encodeToString(" + name + ")).append('\"');");
+        } else if ("java.lang.String".equals(typeName)) {
+            method.addBodyLine("writeJsonString(out, " + name + ");");
+            usesStringWriter = true;
+        } else {
+            method.addBodyLine("writeJsonString(out, String.valueOf(" + name + "));");
+            usesStringWriter = true;
+        }
+
+        if (nullable) {
+            method.addBodyLine("}");
+        }
+        return usesStringWriter;
+    }
+
+    private Method generateWriteJsonString(
+            IntrospectedTable introspectedTable,
+            TopLevelClass topLevelClass,
+            FullyQualifiedJavaType appendable,
+            FullyQualifiedJavaType ioException) {
+        Method method = new Method("writeJsonString");
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(appendable, "out"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "value"));
+        method.addException(ioException);
+        addMethodComment(introspectedTable, topLevelClass, method);
+
+        method.addBodyLine("out.append('\"');");
+        method.addBodyLine("int start = 0;");
+        method.addBodyLine("for (int i = 0; i < value.length(); i++) {");
+        method.addBodyLine("char c = value.charAt(i);");
+        method.addBodyLine("if (c < 0x20 || c == '\"' || c == '\\\\') {");
+        method.addBodyLine("out.append(value, start, i);");
+        method.addBodyLine("if (c == '\"' || c == '\\\\') {");
+        method.addBodyLine("out.append('\\\\').append(c);");
+        method.addBodyLine("} else {");
+        method.addBodyLine("out.append(\"\\\\u00\")");
+        method.addBodyLine("        .append(\"0123456789abcdef\".charAt(c >> 4))");
+        method.addBodyLine("        .append(\"0123456789abcdef\".charAt(c & 0xF));");
+        method.addBodyLine("}");
+        method.addBodyLine("start = i + 1;");
+        method.addBodyLine("}");
+        method.addBodyLine("}");
+        method.addBodyLine("out.append(value, start, value.length());");
+        method.addBodyLine("out.append('\"');");
+        return method;
+    }
+
+    private void generateJsonSerializer(IntrospectedTable introspectedTable, TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType modelType = topLevelClass.getType();
+        FullyQualifiedJavaType jsonSerializer =
+                new FullyQualifiedJavaType("com.fasterxml.jackson.databind.JsonSerializer");
+        FullyQualifiedJavaType jsonGenerator = new FullyQualifiedJavaType("com.fasterxml.jackson.core.JsonGenerator");
+        FullyQualifiedJavaType serializerProvider =
+                new FullyQualifiedJavaType("com.fasterxml.jackson.databind.SerializerProvider");
+        FullyQualifiedJavaType jsonSerialize =
+                new FullyQualifiedJavaType("com.fasterxml.jackson.databind.annotation.JsonSerialize");
+        FullyQualifiedJavaType ioException = new FullyQualifiedJavaType("java.io.IOException");
+        FullyQualifiedJavaType serializerType =
+                new FullyQualifiedJavaType(modelType.getFullyQualifiedName() + "JsonSerializer");
+
+        TopLevelClass serializer = new TopLevelClass(serializerType);
+        serializer.setVisibility(JavaVisibility.PUBLIC);
+        FullyQualifiedJavaType superClass = new FullyQualifiedJavaType(jsonSerializer.getFullyQualifiedName());
+        superClass.addTypeArgument(modelType);
+        serializer.setSuperClass(superClass);
+        serializer.addImportedType(jsonSerializer);
+        serializer.addImportedType(jsonGenerator);
+        serializer.addImportedType(serializerProvider);
+        serializer.addImportedType(ioException);
+        serializer.addImportedType(modelType);
+        context.getCommentGenerator().addJavaFileComment(serializer);
+        context.getCommentGenerator().addClassComment(serializer, introspectedTable);
+
+        Method serialize = new Method("serialize");
+        serialize.setVisibility(JavaVisibility.PUBLIC);
+        serialize.addAnnotation("@Override");
+        serialize.addParameter(new Parameter(modelType, "value"));
+        serialize.addParameter(new Parameter(jsonGenerator, "gen"));
+        serialize.addParameter(new Parameter(serializerProvider, "serializers"));
+        serialize.addException(ioException);
+        serialize.addBodyLine("StringBuilder sb = new StringBuilder();");
+        serialize.addBodyLine("value.writeJson(sb);");
+        serialize.addBodyLine("gen.writeRawValue(sb.toString());");
+        serializer.addMethod(serialize);
+
+        topLevelClass.addImportedType(jsonSerialize);
+        topLevelClass.addAnnotation("@JsonSerialize(using = " + serializerType.getShortName() + ".class)");
+        serializers.add(serializer);
+    }
+
+    private void addMethodComment(IntrospectedTable introspectedTable, TopLevelClass topLevelClass, Method method) {
+        if (introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL) {
+            context.getCommentGenerator()
+                    .addGeneralMethodAnnotation(method, introspectedTable, topLevelClass.getImportedTypes());
+        } else {
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        }
+    }
+
+    private boolean isSerialVersionUID(Field field) {
+        return serialVersionUID.getName().equals(field.getName())
+                && serialVersionUID.getType().equals(field.getType())
+                && field.getVisibility() == JavaVisibility.PRIVATE
+                && field.isStatic()
+                && field.isFinal();
+    }
+}
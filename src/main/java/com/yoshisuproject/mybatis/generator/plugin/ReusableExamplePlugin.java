@@ -0,0 +1,491 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+
+/**
+ * MyBatis Generator plugin to generate Example classes with less allocation which can be reused.
+ * <p>
+ * The criteria list of each Criteria is presized to the number of columns it collects, up to 10,
+ * and the list of Criteria to a single element. In addition, an Example can be frozen with freeze().
+ * A frozen Example rejects every modification, so it can be built once, for example as a static
+ * constant, and shared by concurrent queries.
+ * <p>
+ * A frozen Example is also a template: bind(Object...) pairs it with the values of one call, in the
+ * order the criteria were added to the Example, and the selectByTemplate statements read the values
+ * from there instead of the criteria. Only a small holder is allocated per call. The statements are added to XML mappers
+ * only, as annotated mappers build their SQL from the Example itself.
+ */
+public class ReusableExamplePlugin extends PluginAdapter {
+
+    private static final int MAX_INITIAL_CAPACITY = 10;
+
+    private static final List<String> MUTATOR_METHODS =
+            Arrays.asList("setOrderByClause", "setDistinct", "or", "createCriteria", "clear");
+
+    private static final String BOUND_CLASS = "Bound";
+
+    private static final String TEMPLATE_WHERE_CLAUSE_ID = "Template_Where_Clause";
+
+    private static final String SELECT_BY_TEMPLATE_STATEMENT_ID = "selectByTemplate";
+
+    private static final String SELECT_BY_TEMPLATE_WITH_BLOBS_STATEMENT_ID = "selectByTemplateWithBLOBs";
+
+    /**
+     * Validates the plugin configuration.
+     *
+     * @param warnings Warnings during validation will be added to this list
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    /**
+     * Presizes the criteria lists and adds freeze and bind support to the example class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always true
+     */
+    @Override
+    public boolean modelExampleClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        topLevelClass.getMethods().stream()
+                .filter(Method::isConstructor)
+                .forEach(constructor ->
+                        replaceBodyLine(constructor, "oredCriteria = new ArrayList<>();", "new ArrayList<>(1)"));
+
+        Optional<InnerClass> generatedCriteria = findInnerClass(topLevelClass, "GeneratedCriteria");
+        Optional<InnerClass> criterion = findInnerClass(topLevelClass, "Criterion");
+        if (!generatedCriteria.isPresent() || !criterion.isPresent()) {
+            return true;
+        }
+
+        // columns with a typeHandler collect their criteria in a list of their own
+        long columnCount = introspectedTable.getNonBLOBColumns().stream()
+                .filter(column -> column.getTypeHandler() == null)
+                .count();
+        int capacity = (int) Math.max(1, Math.min(columnCount, MAX_INITIAL_CAPACITY));
+        generatedCriteria.get().getMethods().stream()
+                .filter(Method::isConstructor)
+                .forEach(constructor -> {
+                    List<String> bodyLines = constructor.getBodyLines();
+                    for (int i = 0; i < bodyLines.size(); i++) {
+                        String line = bodyLines.get(i);
+                        if (line.equals("criteria = new ArrayList<>();")) {
+                            replaceBodyLine(constructor, line, "new ArrayList<>(" + capacity + ")");
+                        } else if (line.endsWith("Criteria = new ArrayList<>();")) {
+                            replaceBodyLine(constructor, line, "new ArrayList<>(1)");
+                        }
+                    }
+                });
+
+        boolean hasAllCriteria =
+                generatedCriteria.get().getFields().stream().anyMatch(field -> "allCriteria".equals(field.getName()));
+        generatedCriteria.get().addMethod(generateCriteriaFreeze(introspectedTable, generatedCriteria.get()));
+        generateValueIndexes(introspectedTable, criterion.get());
+        generateSequence(introspectedTable, topLevelClass, generatedCriteria.get(), criterion.get());
+        generateFreeze(introspectedTable, topLevelClass, hasAllCriteria ? "getAllCriteria" : "getCriteria");
+        generateBind(introspectedTable, topLevelClass);
+        return true;
+    }
+
+    /**
+     * Adds a selectByTemplate method next to the selectByExample method of XML mappers.
+     *
+     * @param method The selectByExample method
+     * @param interfaze The mapper interface
+     * @param introspectedTable The introspected table information
+     * @return always true to indicate the method should be generated
+     */
+    @Override
+    public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(
+            Method method, Interface interfaze, IntrospectedTable introspectedTable) {
+        if (isSupported(introspectedTable)) {
+            addSelectByTemplateMethod(method, interfaze, introspectedTable, SELECT_BY_TEMPLATE_STATEMENT_ID);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a selectByTemplateWithBLOBs method next to the selectByExampleWithBLOBs method of XML mappers.
+     *
+     * @param method The selectByExampleWithBLOBs method
+     * @param interfaze The mapper interface
+     * @param introspectedTable The introspected table information
+     * @return always true to indicate the method should be generated
+     */
+    @Override
+    public boolean clientSelectByExampleWithBLOBsMethodGenerated(
+            Method method, Interface interfaze, IntrospectedTable introspectedTable) {
+        if (isSupported(introspectedTable)) {
+            addSelectByTemplateMethod(method, interfaze, introspectedTable, SELECT_BY_TEMPLATE_WITH_BLOBS_STATEMENT_ID);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the template where clause and the selectByTemplate statements to the mapper XML. They are
+     * copies of the example ones which read the values of the criteria from the bound values.
+     *
+     * @param document The generated mapper XML document
+     * @param introspectedTable The introspected table information
+     * @return always true to indicate the document should be generated
+     */
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put(introspectedTable.getExampleWhereClauseId(), TEMPLATE_WHERE_CLAUSE_ID);
+        replacements.put(introspectedTable.getSelectByExampleStatementId(), SELECT_BY_TEMPLATE_STATEMENT_ID);
+        replacements.put(
+                introspectedTable.getSelectByExampleWithBLOBsStatementId(), SELECT_BY_TEMPLATE_WITH_BLOBS_STATEMENT_ID);
+        replacements.put(introspectedTable.getExampleType(), introspectedTable.getExampleType() + "$" + BOUND_CLASS);
+        replacements.put("criterion.value", "values[criterion.valueIndex]");
+
+        List<VisitableElement> elements = document.getRootElement().getElements();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            if (!(elements.get(i) instanceof XmlElement)) {
+                continue;
+            }
+            XmlElement element = (XmlElement) elements.get(i);
+            String id = getAttribute(element, "id");
+            boolean whereClause = "sql".equals(element.getName())
+                    && introspectedTable.getExampleWhereClauseId().equals(id);
+            boolean select = "select".equals(element.getName())
+                    && (introspectedTable.getSelectByExampleStatementId().equals(id)
+                            || introspectedTable
+                                    .getSelectByExampleWithBLOBsStatementId()
+                                    .equals(id));
+            if (whereClause || select) {
+                elements.add(i + 1, copyElement(element, replacements));
+            }
+        }
+        return true;
+    }
+
+    private void generateValueIndexes(IntrospectedTable introspectedTable, InnerClass criterion) {
+        for (String name : Arrays.asList("valueIndex", "secondValueIndex")) {
+            Field field = new Field(name, FullyQualifiedJavaType.getIntInstance());
+            field.setVisibility(JavaVisibility.PRIVATE);
+            context.getCommentGenerator().addFieldComment(field, introspectedTable);
+            criterion.addField(field);
+
+            Method getter = new Method("get" + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+            getter.setVisibility(JavaVisibility.PUBLIC);
+            getter.setReturnType(FullyQualifiedJavaType.getIntInstance());
+            context.getCommentGenerator().addGeneralMethodComment(getter, introspectedTable);
+            getter.addBodyLine("return " + name + ";");
+            criterion.addMethod(getter);
+        }
+    }
+
+    private void generateSequence(
+            IntrospectedTable introspectedTable,
+            TopLevelClass topLevelClass,
+            InnerClass generatedCriteria,
+            InnerClass criterion) {
+        // criteria of a typeHandler are kept in lists of their own, so the order they were added in is recorded
+        Field criterionSequence = new Field("criterionSequence", FullyQualifiedJavaType.getIntInstance());
+        criterionSequence.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addFieldComment(criterionSequence, introspectedTable);
+        topLevelClass.addField(criterionSequence);
+
+        Field sequence = new Field("sequence", FullyQualifiedJavaType.getIntInstance());
+        sequence.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addFieldComment(sequence, introspectedTable);
+        criterion.addField(sequence);
+
+        Field example = new Field("example", topLevelClass.getType());
+        example.setVisibility(JavaVisibility.PROTECTED);
+        context.getCommentGenerator().addFieldComment(example, introspectedTable);
+        generatedCriteria.addField(example);
+
+        topLevelClass.getMethods().stream()
+                .filter(method -> "createCriteriaInternal".equals(method.getName()))
+                .forEach(method -> {
+                    int index = method.getBodyLines().indexOf("return criteria;");
+                    if (index >= 0) {
+                        method.addBodyLine(index, "criteria.example = this;");
+                    }
+                });
+
+        FullyQualifiedJavaType criterionType = new FullyQualifiedJavaType("Criterion");
+        Method sequenceMethod = new Method("sequence");
+        sequenceMethod.setVisibility(JavaVisibility.PRIVATE);
+        sequenceMethod.setReturnType(criterionType);
+        sequenceMethod.addParameter(new Parameter(criterionType, "criterion"));
+        context.getCommentGenerator().addGeneralMethodComment(sequenceMethod, introspectedTable);
+        sequenceMethod.addBodyLine("if (example != null) {");
+        sequenceMethod.addBodyLine("criterion.sequence = example.criterionSequence++;");
+        sequenceMethod.addBodyLine("}");
+        sequenceMethod.addBodyLine("return criterion;");
+
+        generatedCriteria.getMethods().forEach(method -> {
+            List<String> bodyLines = method.getBodyLines();
+            for (int i = 0; i < bodyLines.size(); i++) {
+                String line = bodyLines.get(i);
+                if (line.contains(".add(new Criterion(") && line.endsWith(");")) {
+                    String sequenced = line.replace(".add(new Criterion(", ".add(sequence(new Criterion(");
+                    bodyLines.set(i, sequenced.substring(0, sequenced.length() - 2) + "));");
+                }
+            }
+        });
+        generatedCriteria.addMethod(sequenceMethod);
+    }
+
+    private void generateFreeze(
+            IntrospectedTable introspectedTable, TopLevelClass topLevelClass, String criteriaGetter) {
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.ArrayList"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Collections"));
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+
+        Field frozen = new Field("frozen", FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        frozen.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addFieldComment(frozen, introspectedTable);
+        topLevelClass.addField(frozen);
+
+        Field parameterCount = new Field("parameterCount", FullyQualifiedJavaType.getIntInstance());
+        parameterCount.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addFieldComment(parameterCount, introspectedTable);
+        topLevelClass.addField(parameterCount);
+
+        Method freeze = new Method("freeze");
+        freeze.setVisibility(JavaVisibility.PUBLIC);
+        freeze.setReturnType(topLevelClass.getType());
+        context.getCommentGenerator().addGeneralMethodComment(freeze, introspectedTable);
+        freeze.addBodyLine("if (!frozen) {");
+        freeze.addBodyLine("List<Criterion> criterions = new ArrayList<>();");
+        freeze.addBodyLine("for (Criteria criteria : oredCriteria) {");
+        freeze.addBodyLine("criteria.freeze();");
+        freeze.addBodyLine("criterions.addAll(criteria." + criteriaGetter + "());");
+        freeze.addBodyLine("}");
+        freeze.addBodyLine("criterions.sort((left, right) -> Integer.compare(left.sequence, right.sequence));");
+        freeze.addBodyLine("for (Criterion criterion : criterions) {");
+        freeze.addBodyLine("if (criterion.isBetweenValue()) {");
+        freeze.addBodyLine("criterion.valueIndex = parameterCount++;");
+        freeze.addBodyLine("criterion.secondValueIndex = parameterCount++;");
+        freeze.addBodyLine("} else if (!criterion.isNoValue()) {");
+        freeze.addBodyLine("criterion.valueIndex = parameterCount++;");
+        freeze.addBodyLine("}");
+        freeze.addBodyLine("}");
+        freeze.addBodyLine("oredCriteria = Collections.unmodifiableList(oredCriteria);");
+        freeze.addBodyLine("frozen = true;");
+        freeze.addBodyLine("}");
+        freeze.addBodyLine("return this;");
+        topLevelClass.addMethod(freeze);
+
+        Method isFrozen = new Method("isFrozen");
+        isFrozen.setVisibility(JavaVisibility.PUBLIC);
+        isFrozen.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        context.getCommentGenerator().addGeneralMethodComment(isFrozen, introspectedTable);
+        isFrozen.addBodyLine("return frozen;");
+        topLevelClass.addMethod(isFrozen);
+
+        Method checkNotFrozen = new Method("checkNotFrozen");
+        checkNotFrozen.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addGeneralMethodComment(checkNotFrozen, introspectedTable);
+        checkNotFrozen.addBodyLine("if (frozen) {");
+        checkNotFrozen.addBodyLine("throw new UnsupportedOperationException(\"Frozen example cannot be modified\");");
+        checkNotFrozen.addBodyLine("}");
+
+        topLevelClass.getMethods().stream()
+                .filter(method -> !method.isConstructor() && MUTATOR_METHODS.contains(method.getName()))
+                .forEach(method -> method.addBodyLine(0, "checkNotFrozen();"));
+        topLevelClass.addMethod(checkNotFrozen);
+    }
+
+    private void generateBind(IntrospectedTable introspectedTable, TopLevelClass topLevelClass) {
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Arrays"));
+        FullyQualifiedJavaType boundType = new FullyQualifiedJavaType(BOUND_CLASS);
+        FullyQualifiedJavaType valuesType = FullyQualifiedJavaType.getNewListInstance();
+        valuesType.addTypeArgument(FullyQualifiedJavaType.getObjectInstance());
+
+        Method bind = new Method("bind");
+        bind.setVisibility(JavaVisibility.PUBLIC);
+        bind.setReturnType(boundType);
+        bind.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "values", true));
+        context.getCommentGenerator().addGeneralMethodComment(bind, introspectedTable);
+        bind.addBodyLine("if (!frozen) {");
+        bind.addBodyLine("throw new IllegalStateException(\"Example must be frozen before it is bound\");");
+        bind.addBodyLine("}");
+        bind.addBodyLine("if (values.length != parameterCount) {");
+        bind.addBodyLine("throw new IllegalArgumentException(\"Expected \" + parameterCount + \" values but got \""
+                + " + values.length);");
+        bind.addBodyLine("}");
+        bind.addBodyLine("for (Object value : values) {");
+        bind.addBodyLine("if (value == null) {");
+        bind.addBodyLine("throw new IllegalArgumentException(\"Bound values cannot be null\");");
+        bind.addBodyLine("}");
+        bind.addBodyLine("}");
+        bind.addBodyLine("return new " + BOUND_CLASS + "(this, Arrays.asList(values));");
+        topLevelClass.addMethod(bind);
+
+        InnerClass bound = new InnerClass(boundType);
+        bound.setVisibility(JavaVisibility.PUBLIC);
+        bound.setStatic(true);
+        context.getCommentGenerator().addClassComment(bound, introspectedTable);
+
+        Field example = new Field("example", topLevelClass.getType());
+        example.setVisibility(JavaVisibility.PRIVATE);
+        example.setFinal(true);
+        context.getCommentGenerator().addFieldComment(example, introspectedTable);
+        bound.addField(example);
+
+        Field values = new Field("values", valuesType);
+        values.setVisibility(JavaVisibility.PRIVATE);
+        values.setFinal(true);
+        context.getCommentGenerator().addFieldComment(values, introspectedTable);
+        bound.addField(values);
+
+        Method constructor = new Method(BOUND_CLASS);
+        constructor.setConstructor(true);
+        constructor.setVisibility(JavaVisibility.PRIVATE);
+        constructor.addParameter(new Parameter(topLevelClass.getType(), "example"));
+        constructor.addParameter(new Parameter(valuesType, "values"));
+        context.getCommentGenerator().addGeneralMethodComment(constructor, introspectedTable);
+        constructor.addBodyLine("this.example = example;");
+        constructor.addBodyLine("this.values = values;");
+        bound.addMethod(constructor);
+
+        FullyQualifiedJavaType criteriaListType = FullyQualifiedJavaType.getNewListInstance();
+        criteriaListType.addTypeArgument(new FullyQualifiedJavaType("Criteria"));
+        bound.addMethod(generateGetter(
+                introspectedTable, "isDistinct", FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "example"));
+        bound.addMethod(generateGetter(
+                introspectedTable, "getOrderByClause", FullyQualifiedJavaType.getStringInstance(), "example"));
+        bound.addMethod(generateGetter(introspectedTable, "getOredCriteria", criteriaListType, "example"));
+        bound.addMethod(generateGetter(introspectedTable, "getValues", valuesType, null));
+        topLevelClass.addInnerClass(bound);
+    }
+
+    private Method generateGetter(
+            IntrospectedTable introspectedTable, String name, FullyQualifiedJavaType returnType, String delegate) {
+        Method getter = new Method(name);
+        getter.setVisibility(JavaVisibility.PUBLIC);
+        getter.setReturnType(returnType);
+        context.getCommentGenerator().addGeneralMethodComment(getter, introspectedTable);
+        if (delegate == null) {
+            getter.addBodyLine("return values;");
+        } else {
+            getter.addBodyLine("return " + delegate + "." + name + "();");
+        }
+        return getter;
+    }
+
+    private Method generateCriteriaFreeze(IntrospectedTable introspectedTable, InnerClass generatedCriteria) {
+        Method freeze = new Method("freeze");
+        freeze.setVisibility(JavaVisibility.PROTECTED);
+        context.getCommentGenerator().addGeneralMethodComment(freeze, introspectedTable);
+
+        boolean hasAllCriteria = false;
+        for (Field field : generatedCriteria.getFields()) {
+            if (field.isStatic() || !"List".equals(field.getType().getShortNameWithoutTypeArguments())) {
+                continue;
+            }
+            if ("allCriteria".equals(field.getName())) {
+                hasAllCriteria = true;
+            } else {
+                freeze.addBodyLine(field.getName() + " = Collections.unmodifiableList(" + field.getName() + ");");
+            }
+        }
+        if (hasAllCriteria) {
+            // build the cache of getAllCriteria before the example is shared
+            freeze.addBodyLine("allCriteria = Collections.unmodifiableList(getAllCriteria());");
+        }
+        return freeze;
+    }
+
+    private void addSelectByTemplateMethod(
+            Method method, Interface interfaze, IntrospectedTable introspectedTable, String name) {
+        FullyQualifiedJavaType boundType =
+                new FullyQualifiedJavaType(introspectedTable.getExampleType() + "." + BOUND_CLASS);
+
+        Method selectByTemplate = new Method(name);
+        selectByTemplate.setAbstract(true);
+        method.getReturnType().ifPresent(selectByTemplate::setReturnType);
+        selectByTemplate.addParameter(new Parameter(boundType, "bound"));
+        context.getCommentGenerator().addGeneralMethodComment(selectByTemplate, introspectedTable);
+
+        interfaze.addImportedType(boundType);
+        interfaze.addMethod(selectByTemplate);
+    }
+
+    private VisitableElement copyElement(VisitableElement element, Map<String, String> replacements) {
+        if (element instanceof TextElement) {
+            String content = ((TextElement) element)
+                    .getContent()
+                    .replace("#{criterion.value", "#{values[${criterion.valueIndex}]")
+                    .replace("#{criterion.secondValue", "#{values[${criterion.secondValueIndex}]");
+            return new TextElement(content);
+        }
+        if (!(element instanceof XmlElement)) {
+            return element;
+        }
+        XmlElement original = (XmlElement) element;
+        XmlElement answer = new XmlElement(original.getName());
+        for (Attribute attribute : original.getAttributes()) {
+            answer.addAttribute(new Attribute(
+                    attribute.getName(), replacements.getOrDefault(attribute.getValue(), attribute.getValue())));
+        }
+        for (VisitableElement child : original.getElements()) {
+            answer.addElement(copyElement(child, replacements));
+        }
+        return answer;
+    }
+
+    private String getAttribute(XmlElement element, String name) {
+        return element.getAttributes().stream()
+                .filter(attribute -> name.equals(attribute.getName()))
+                .map(Attribute::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Optional<InnerClass> findInnerClass(TopLevelClass topLevelClass, String name) {
+        return topLevelClass.getInnerClasses().stream()
+                .filter(innerClass -> name.equals(innerClass.getType().getShortName()))
+                .findFirst();
+    }
+
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() != IntrospectedTable.TargetRuntime.MYBATIS3
+                || context.getSqlMapGeneratorConfiguration() == null) {
+            return false;
+        }
+        JavaClientGeneratorConfiguration clientConfiguration = context.getJavaClientGeneratorConfiguration();
+        return clientConfiguration == null || !"ANNOTATEDMAPPER".equals(clientConfiguration.getConfigurationType());
+    }
+
+    private void replaceBodyLine(Method method, String line, String initializer) {
+        List<String> bodyLines = method.getBodyLines();
+        int index = bodyLines.indexOf(line);
+        if (index >= 0) {
+            bodyLines.set(index, line.substring(0, line.indexOf('=') + 2) + initializer + ";");
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Properties;
+
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ShellCallback;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.mybatis.generator.internal.util.StringUtility;
+
+/**
+ * MyBatis Generator plugin to write each generated file as soon as its plugin callbacks finish.
+ * <p>
+ * By default MyBatis Generator keeps every generated Java and XML file of a context in memory
+ * until the end of the run. This plugin formats and writes models, mappers and mapper XML files
+ * per table instead, and then drops them from the generator so that peak memory does not grow
+ * with the number of tables. It must be the last plugin of the context so that every other plugin
+ * has already processed a file when it is written.
+ * <p>
+ * <b>The overwrite option of the generator ({@code -overwrite}, {@code overwrite} of the Maven and
+ * Ant tasks) is not visible to plugins.</b> Files written by this plugin follow its own overwrite
+ * property only, so set both to the same value. Otherwise a generator run with overwrite enabled
+ * saves every existing file streamed by this plugin as a {@code .java.1} copy next to it.
+ * <p>
+ * Mapper XML files are merged like MyBatis Generator does, but Java files are never merged, as
+ * the default shell callback does not support it: existing Java files are overwritten or kept
+ * according to the overwrite property.
+ * <p>
+ * Problems while writing files are added to the warnings reported by the generator.
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>overwrite: Whether existing files are overwritten (true/false), must match the generator option</li>
+ * </ul>
+ */
+public class StreamingGenerationPlugin extends PluginAdapter {
+
+    private ShellCallback shellCallback;
+
+    private List<String> warnings;
+
+    /**
+     * Sets plugin properties.
+     *
+     * @param properties The properties configured for this plugin
+     */
+    @Override
+    public void setProperties(Properties properties) {
+        super.setProperties(properties);
+        this.shellCallback = new DefaultShellCallback(StringUtility.isTrue(properties.getProperty("overwrite")));
+    }
+
+    /**
+     * Validates the plugin configuration.
+     *
+     * @param warnings Warnings during validation will be added to this list
+     * @return always true as this plugin is always valid
+     */
+    @Override
+    public boolean validate(List<String> warnings) {
+        this.warnings = warnings;
+        return true;
+    }
+
+    /**
+     * Writes the base record class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always false as the class has already been written
+     */
+    @Override
+    public boolean modelBaseRecordClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        return writeModelFile(topLevelClass);
+    }
+
+    /**
+     * Writes the primary key class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always false as the class has already been written
+     */
+    @Override
+    public boolean modelPrimaryKeyClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        return writeModelFile(topLevelClass);
+    }
+
+    /**
+     * Writes the record with BLOBs class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always false as the class has already been written
+     */
+    @Override
+    public boolean modelRecordWithBLOBsClassGenerated(
+            TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        return writeModelFile(topLevelClass);
+    }
+
+    /**
+     * Writes the example class.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always false as the class has already been written
+     */
+    @Override
+    public boolean modelExampleClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        return writeModelFile(topLevelClass);
+    }
+
+    /**
+     * Writes the mapper interface.
+     *
+     * @param interfaze The mapper interface
+     * @param introspectedTable The table introspected
+     * @return always false as the interface has already been written
+     */
+    @Override
+    public boolean clientGenerated(Interface interfaze, IntrospectedTable introspectedTable) {
+        return writeClientFile(interfaze);
+    }
+
+    /**
+     * Writes the SQL provider class of annotated mappers.
+     *
+     * @param topLevelClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always false as the class has already been written
+     */
+    @Override
+    public boolean providerGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        return writeClientFile(topLevelClass);
+    }
+
+    /**
+     * Writes the dynamic SQL support class.
+     *
+     * @param supportClass The class being generated
+     * @param introspectedTable The table introspected
+     * @return always false as the class has already been written
+     */
+    @Override
+    public boolean dynamicSqlSupportGenerated(TopLevelClass supportClass, IntrospectedTable introspectedTable) {
+        return writeClientFile(supportClass);
+    }
+
+    /**
+     * Writes the mapper XML file, merging it with an existing file when possible.
+     *
+     * @param sqlMap The generated mapper XML file
+     * @param introspectedTable The table introspected
+     * @return always false as the file has already been written
+     */
+    @Override
+    public boolean sqlMapGenerated(GeneratedXmlFile sqlMap, IntrospectedTable introspectedTable) {
+        try {
+            File directory = shellCallback.getDirectory(sqlMap.getTargetProject(), sqlMap.getTargetPackage());
+            File targetFile = new File(directory, sqlMap.getFileName());
+            String source;
+            if (targetFile.exists() && sqlMap.isMergeable()) {
+                source = XmlFileMergerJaxp.getMergedSource(sqlMap, targetFile);
+            } else {
+                source = sqlMap.getFormattedContent();
+                targetFile = getTargetFile(directory, sqlMap);
+            }
+            writeFile(targetFile, source, sqlMap.getFileEncoding());
+        } catch (ShellException e) {
+            warnings.add(e.getMessage());
+        }
+        return false;
+    }
+
+    private boolean writeModelFile(CompilationUnit compilationUnit) {
+        writeJavaFile(
+                compilationUnit, context.getJavaModelGeneratorConfiguration().getTargetProject());
+        return false;
+    }
+
+    private boolean writeClientFile(CompilationUnit compilationUnit) {
+        writeJavaFile(
+                compilationUnit, context.getJavaClientGeneratorConfiguration().getTargetProject());
+        return false;
+    }
+
+    private void writeJavaFile(CompilationUnit compilationUnit, String targetProject) {
+        GeneratedJavaFile javaFile = new GeneratedJavaFile(
+                compilationUnit,
+                targetProject,
+                context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                context.getJavaFormatter());
+        try {
+            File directory = shellCallback.getDirectory(javaFile.getTargetProject(), javaFile.getTargetPackage());
+            // DefaultShellCallback cannot merge Java files, so existing files are overwritten or kept
+            writeFile(getTargetFile(directory, javaFile), javaFile.getFormattedContent(), javaFile.getFileEncoding());
+        } catch (ShellException e) {
+            warnings.add(e.getMessage());
+        }
+    }
+
+    private File getTargetFile(File directory, GeneratedFile generatedFile) {
+        File targetFile = new File(directory, generatedFile.getFileName());
+        if (!targetFile.exists()) {
+            return targetFile;
+        }
+        if (shellCallback.isOverwriteEnabled()) {
+            warnings.add("Existing file " + targetFile.getAbsolutePath() + " was overwritten");
+            return targetFile;
+        }
+
+        for (int i = 1; i < 1000; i++) {
+            File uniqueFile = new File(directory, generatedFile.getFileName() + "." + i);
+            if (!uniqueFile.exists()) {
+                warnings.add("Existing file was not overwritten, the generated file is saved as "
+                        + uniqueFile.getAbsolutePath());
+                return uniqueFile;
+            }
+        }
+        throw new IllegalStateException("Cannot find a unique file name in " + directory.getAbsolutePath());
+    }
+
+    private void writeFile(File file, String content, String fileEncoding) {
+        try (FileOutputStream fos = new FileOutputStream(file, false);
+                BufferedWriter writer = new BufferedWriter(
+                        fileEncoding == null
+                                ? new OutputStreamWriter(fos)
+                                : new OutputStreamWriter(fos, Charset.forName(fileEncoding)))) {
+            writer.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EnumTypeHandlerPluginTest {
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @Mock
+    private FullyQualifiedTable fullyQualifiedTable;
+
+    @Mock
+    private CommentGenerator commentGenerator;
+
+    private EnumTypeHandlerPlugin plugin;
+
+    private IntrospectedColumn statusColumn;
+
+    private IntrospectedColumn nameColumn;
+
+    private List<String> warnings;
+
+    @BeforeEach
+    void setUp() {
+        plugin = new EnumTypeHandlerPlugin();
+        plugin.setContext(context);
+        plugin.setProperties(new Properties());
+
+        statusColumn = new IntrospectedColumn();
+        statusColumn.setJavaProperty("status");
+        statusColumn.setFullyQualifiedJavaType(FullyQualifiedJavaType.getStringInstance());
+        Properties statusProperties = new Properties();
+        statusProperties.setProperty("enumValues", "active, in-progress,deleted");
+        statusColumn.setProperties(statusProperties);
+
+        nameColumn = new IntrospectedColumn();
+        nameColumn.setJavaProperty("name");
+        nameColumn.setFullyQualifiedJavaType(FullyQualifiedJavaType.getStringInstance());
+
+        JavaModelGeneratorConfiguration modelConfiguration = new JavaModelGeneratorConfiguration();
+        modelConfiguration.setTargetProject("src/main/java");
+        modelConfiguration.setTargetPackage("com.example");
+
+        when(context.getJavaModelGeneratorConfiguration()).thenReturn(modelConfiguration);
+        when(context.getCommentGenerator()).thenReturn(commentGenerator);
+        when(context.getJavaFormatter()).thenReturn(new DefaultJavaFormatter());
+        when(introspectedTable.getAllColumns()).thenReturn(Arrays.asList(statusColumn, nameColumn));
+        when(introspectedTable.getFullyQualifiedTable()).thenReturn(fullyQualifiedTable);
+        when(introspectedTable.getBaseRecordType()).thenReturn("com.example.User");
+        when(fullyQualifiedTable.getDomainObjectName()).thenReturn("User");
+        when(context.getIntrospectedTables()).thenReturn(Arrays.asList(introspectedTable));
+
+        warnings = new ArrayList<>();
+        plugin.validate(warnings);
+    }
+
+    @Test
+    void initializedShouldReplaceColumnType() {
+        plugin.initialized(introspectedTable);
+
+        assertEquals(
+                "com.example.UserStatus",
+                statusColumn.getFullyQualifiedJavaType().getFullyQualifiedName());
+        assertEquals("com.example.UserStatusTypeHandler", statusColumn.getTypeHandler());
+        assertEquals("java.lang.String", nameColumn.getFullyQualifiedJavaType().getFullyQualifiedName());
+        assertNull(nameColumn.getTypeHandler());
+    }
+
+    @Test
+    void initializedWithTargetPackageAndEnumName() {
+        Properties properties = new Properties();
+        properties.setProperty("targetPackage", "com.example.type");
+        plugin.setProperties(properties);
+        statusColumn.getProperties().setProperty("enumName", "Status");
+
+        plugin.initialized(introspectedTable);
+
+        assertEquals(
+                "com.example.type.Status",
+                statusColumn.getFullyQualifiedJavaType().getFullyQualifiedName());
+        assertEquals("com.example.type.StatusTypeHandler", statusColumn.getTypeHandler());
+    }
+
+    @Test
+    void generateEnumAndTypeHandler() {
+        plugin.initialized(introspectedTable);
+        List<GeneratedJavaFile> files = plugin.contextGenerateAdditionalJavaFiles(introspectedTable);
+
+        assertEquals(2, files.size());
+        assertEquals("UserStatus.java", files.get(0).getFileName());
+        assertEquals("UserStatusTypeHandler.java", files.get(1).getFileName());
+
+        String enumContent = files.get(0).getFormattedContent();
+        assertTrue(enumContent.contains("public enum UserStatus {"));
+        assertTrue(enumContent.contains("ACTIVE(\"active\"),"));
+        assertTrue(enumContent.contains("IN_PROGRESS(\"in-progress\"),"));
+        assertTrue(enumContent.contains("DELETED(\"deleted\");"));
+        assertTrue(enumContent.contains("case \"in-progress\":"));
+        assertTrue(enumContent.contains("result = IN_PROGRESS;"));
+
+        String handlerContent = files.get(1).getFormattedContent();
+        assertTrue(handlerContent.contains("public class UserStatusTypeHandler extends BaseTypeHandler<UserStatus> {"));
+        assertTrue(handlerContent.contains("ps.setString(i, parameter.getValue());"));
+        assertTrue(handlerContent.contains("return UserStatus.fromValue(rs.getString(columnName));"));
+        assertTrue(handlerContent.contains("return UserStatus.fromValue(cs.getString(columnIndex));"));
+    }
+
+    @Test
+    void valuesWithSameConstantAreSkipped() {
+        statusColumn.getProperties().setProperty("enumValues", "in-progress,in_progress");
+
+        plugin.initialized(introspectedTable);
+
+        assertEquals(
+                "java.lang.String", statusColumn.getFullyQualifiedJavaType().getFullyQualifiedName());
+        assertNull(statusColumn.getTypeHandler());
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("same enum constant IN_PROGRESS"));
+        assertTrue(plugin.contextGenerateAdditionalJavaFiles(introspectedTable).isEmpty());
+    }
+
+    @Test
+    void valuesDifferingInCaseAreSkipped() {
+        statusColumn.getProperties().setProperty("enumValues", "Active,ACTIVE");
+
+        plugin.initialized(introspectedTable);
+
+        assertNull(statusColumn.getTypeHandler());
+        assertEquals(1, warnings.size());
+    }
+
+    @Test
+    void underscoreValueIsSkipped() {
+        statusColumn.getProperties().setProperty("enumValues", "active,_");
+
+        plugin.initialized(introspectedTable);
+
+        assertNull(statusColumn.getTypeHandler());
+        assertTrue(warnings.get(0).contains("cannot be used as an enum constant"));
+    }
+
+    @Test
+    void enumWithSameNameAsModelIsSkipped() {
+        IntrospectedTable userStatusTable = mock(IntrospectedTable.class);
+        FullyQualifiedTable userStatus = mock(FullyQualifiedTable.class);
+        when(userStatusTable.getFullyQualifiedTable()).thenReturn(userStatus);
+        when(userStatus.getDomainObjectName()).thenReturn("UserStatus");
+        when(context.getIntrospectedTables()).thenReturn(Arrays.asList(introspectedTable, userStatusTable));
+
+        plugin.initialized(introspectedTable);
+
+        assertNull(statusColumn.getTypeHandler());
+        assertTrue(warnings.get(0).contains("same name as a generated class"));
+    }
+
+    @Test
+    void enumWithSameNameAsOtherEnumIsSkipped() {
+        statusColumn.getProperties().setProperty("enumName", "State");
+        nameColumn.setProperties(new Properties());
+        nameColumn.getProperties().setProperty("enumValues", "a,b");
+        nameColumn.getProperties().setProperty("enumName", "State");
+
+        plugin.initialized(introspectedTable);
+
+        assertEquals("com.example.StateTypeHandler", statusColumn.getTypeHandler());
+        assertNull(nameColumn.getTypeHandler());
+        assertEquals(1, warnings.size());
+        assertEquals(
+                2, plugin.contextGenerateAdditionalJavaFiles(introspectedTable).size());
+    }
+}
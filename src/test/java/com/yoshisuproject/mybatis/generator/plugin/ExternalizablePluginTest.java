@@ -0,0 +1,333 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.Context;
+
+class ExternalizablePluginTest {
+
+    private ExternalizablePlugin plugin;
+    private Properties properties;
+    private TopLevelClass topLevelClass;
+    private List<String> warnings;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private CommentGenerator commentGenerator;
+
+    @BeforeEach
+    void setUp() {
+        plugin = new ExternalizablePlugin();
+        properties = new Properties();
+
+        topLevelClass = new TopLevelClass("com.example.User");
+        addField("id", new FullyQualifiedJavaType("java.lang.Long"));
+        addField("name", FullyQualifiedJavaType.getStringInstance());
+        addField("age", FullyQualifiedJavaType.getIntInstance());
+        addField("avatar", new FullyQualifiedJavaType("byte[]"));
+        addField("status", new FullyQualifiedJavaType("com.example.UserStatus"));
+
+        Field serialVersionUID = new Field("serialVersionUID", new FullyQualifiedJavaType("long"));
+        serialVersionUID.setStatic(true);
+        serialVersionUID.setFinal(true);
+        serialVersionUID.setVisibility(JavaVisibility.PRIVATE);
+        topLevelClass.addField(serialVersionUID);
+
+        topLevelClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+
+        introspectedTable = Mockito.mock(IntrospectedTable.class);
+        context = Mockito.mock(Context.class);
+        commentGenerator = Mockito.mock(CommentGenerator.class);
+
+        when(introspectedTable.getTargetRuntime()).thenReturn(IntrospectedTable.TargetRuntime.MYBATIS3);
+        when(introspectedTable.getBaseRecordType()).thenReturn("com.example.User");
+        when(introspectedTable.getPrimaryKeyType()).thenReturn("com.example.UserKey");
+        when(context.getCommentGenerator()).thenReturn(commentGenerator);
+        when(context.getJavaFormatter()).thenReturn(new DefaultJavaFormatter());
+
+        plugin.setContext(context);
+        plugin.setProperties(properties);
+        warnings = new ArrayList<>();
+        plugin.validate(warnings);
+    }
+
+    @Test
+    void generateExternalizable() {
+        assertTrue(plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable));
+
+        assertTrue(
+                topLevelClass.getSuperInterfaceTypes().contains(new FullyQualifiedJavaType("java.io.Externalizable")));
+
+        List<String> writeLines = getMethod("writeExternal").getBodyLines();
+        assertEquals(
+                "out.writeByte((this.id == null ? 0x01 : 0) | (this.name == null ? 0x02 : 0)"
+                        + " | (this.avatar == null ? 0x04 : 0) | (this.status == null ? 0x08 : 0));",
+                writeLines.get(0));
+        assertTrue(writeLines.contains("writeVarLong(out, this.id);"));
+        assertTrue(writeLines.contains("writeString(out, this.name);"));
+        assertTrue(writeLines.contains("writeVarInt(out, this.age);"));
+        assertTrue(writeLines.contains("writeBytes(out, this.avatar);"));
+        assertTrue(writeLines.contains("out.writeObject(this.status);"));
+        assertFalse(writeLines.toString().contains("serialVersionUID"));
+
+        List<String> readLines = getMethod("readExternal").getBodyLines();
+        assertEquals("int nulls0 = in.readUnsignedByte();", readLines.get(0));
+        assertTrue(readLines.contains("if ((nulls0 & 0x02) == 0) {"));
+        assertTrue(readLines.contains("this.name = readString(in);"));
+        assertTrue(readLines.contains("this.age = readVarInt(in);"));
+        assertTrue(readLines.contains("this.status = (UserStatus) in.readObject();"));
+
+        assertNotNull(getMethod("writeVarLong"));
+        assertNotNull(getMethod("readVarInt"));
+        assertNotNull(getMethod("readBytes"));
+        assertNotNull(getMethod("writeString"));
+    }
+
+    @Test
+    void nonSerializableClassIsSkipped() {
+        TopLevelClass plainClass = new TopLevelClass("com.example.Plain");
+        plugin.modelBaseRecordClassGenerated(plainClass, introspectedTable);
+
+        assertTrue(plainClass.getMethods().isEmpty());
+        assertTrue(plainClass.getSuperInterfaceTypes().isEmpty());
+    }
+
+    @Test
+    void immutableClassIsSkipped() {
+        TopLevelClass immutableClass = new TopLevelClass("com.example.Immutable");
+        immutableClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+        Field field = new Field("name", FullyQualifiedJavaType.getStringInstance());
+        field.setFinal(true);
+        immutableClass.addField(field);
+
+        plugin.modelBaseRecordClassGenerated(immutableClass, introspectedTable);
+
+        assertTrue(immutableClass.getMethods().isEmpty());
+        assertEquals(1, immutableClass.getSuperInterfaceTypes().size());
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("immutable"));
+    }
+
+    @Test
+    void immutableTableIsSkipped() {
+        when(introspectedTable.isImmutable()).thenReturn(true);
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertNull(getMethod("writeExternal"));
+        assertFalse(
+                topLevelClass.getSuperInterfaceTypes().contains(new FullyQualifiedJavaType("java.io.Externalizable")));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("com.example.User"));
+    }
+
+    @Test
+    void classWithoutNoArgConstructorIsSkipped() {
+        Method constructor = new Method("User");
+        constructor.setConstructor(true);
+        constructor.setVisibility(JavaVisibility.PUBLIC);
+        constructor.addParameter(new Parameter(new FullyQualifiedJavaType("java.lang.Long"), "id"));
+        topLevelClass.addMethod(constructor);
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertNull(getMethod("writeExternal"));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("no-arg constructor"));
+
+        Method noArgConstructor = new Method("User");
+        noArgConstructor.setConstructor(true);
+        noArgConstructor.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.addMethod(noArgConstructor);
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertNotNull(getMethod("writeExternal"));
+    }
+
+    @Test
+    void fieldNamedLikeParameterIsQualified() {
+        addField("in", FullyQualifiedJavaType.getStringInstance());
+        addField("out", FullyQualifiedJavaType.getIntInstance());
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(getMethod("writeExternal").getBodyLines().contains("writeString(out, this.in);"));
+        assertTrue(getMethod("writeExternal").getBodyLines().contains("writeVarInt(out, this.out);"));
+        assertTrue(getMethod("readExternal").getBodyLines().contains("this.in = readString(in);"));
+        assertTrue(getMethod("readExternal").getBodyLines().contains("this.out = readVarInt(in);"));
+    }
+
+    @Test
+    void generateExternalizableWithGeneratedSuperClass() {
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.UserKey"));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertEquals(
+                "super.writeExternal(out);",
+                getMethod("writeExternal").getBodyLines().get(0));
+        assertEquals(
+                "super.readExternal(in);",
+                getMethod("readExternal").getBodyLines().get(0));
+    }
+
+    @Test
+    void generateExternalizableWithRootClass() {
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.BaseEntity"));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        assertNull(getMethod("writeExternal"));
+        assertFalse(
+                topLevelClass.getSuperInterfaceTypes().contains(new FullyQualifiedJavaType("java.io.Externalizable")));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("useExternalizableFromRoot"));
+
+        TopLevelClass rootedClass = new TopLevelClass("com.example.User");
+        rootedClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+        rootedClass.setSuperClass(new FullyQualifiedJavaType("com.example.BaseEntity"));
+        properties.setProperty("useExternalizableFromRoot", "true");
+        plugin.setProperties(properties);
+        plugin.modelBaseRecordClassGenerated(rootedClass, introspectedTable);
+
+        assertTrue(rootedClass.getMethods().stream()
+                .filter(method -> method.getName().equals("writeExternal"))
+                .findFirst()
+                .get()
+                .getBodyLines()
+                .contains("super.writeExternal(out);"));
+    }
+
+    @Test
+    void subClassOfSkippedClassIsSkipped() {
+        TopLevelClass keyClass = new TopLevelClass("com.example.UserKey");
+        keyClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+        keyClass.setSuperClass(new FullyQualifiedJavaType("com.example.BaseEntity"));
+        plugin.modelPrimaryKeyClassGenerated(keyClass, introspectedTable);
+
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.UserKey"));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertNull(getMethod("writeExternal"));
+        assertEquals(1, warnings.size());
+    }
+
+    @Test
+    void generateFixture() {
+        properties.setProperty("fixtureTargetProject", "src/test/java");
+        plugin.setProperties(properties);
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        List<GeneratedJavaFile> files = plugin.contextGenerateAdditionalJavaFiles(introspectedTable);
+
+        assertEquals(1, files.size());
+        assertEquals("UserExternalizableFixture.java", files.get(0).getFileName());
+        assertEquals("src/test/java", files.get(0).getTargetProject());
+
+        String content = files.get(0).getFormattedContent();
+        assertTrue(content.contains("record.setId(1L);"));
+        assertTrue(content.contains("record.setName(\"sample\");"));
+        assertTrue(content.contains("if (!Arrays.equals(expected.getAvatar(), actual.getAvatar())) {"));
+        assertFalse(content.contains("setStatus"));
+        assertTrue(content.contains("return (User) deserialize(serialize(record));"));
+        assertTrue(content.contains("private static final class DefaultForm implements Serializable {"));
+        assertTrue(content.contains("this.avatar = record.getAvatar();"));
+        assertTrue(content.contains("public static String benchmark(int iterations)"));
+        assertTrue(content.contains("long defaultTime = measure(defaultForm, iterations);"));
+        assertTrue(content.contains("public static void main(String[] args)"));
+
+        assertTrue(plugin.contextGenerateAdditionalJavaFiles(introspectedTable).isEmpty());
+    }
+
+    @Test
+    void fixtureSamplesInheritedFields() {
+        properties.setProperty("fixtureTargetProject", "src/test/java");
+        plugin.setProperties(properties);
+
+        TopLevelClass keyClass = new TopLevelClass("com.example.UserKey");
+        keyClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+        keyClass.addField(new Field("tenantId", FullyQualifiedJavaType.getIntInstance()));
+        Method setter = new Method("setTenantId");
+        setter.setVisibility(JavaVisibility.PUBLIC);
+        setter.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "tenantId"));
+        keyClass.addMethod(setter);
+        plugin.modelPrimaryKeyClassGenerated(keyClass, introspectedTable);
+
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.UserKey"));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        List<GeneratedJavaFile> files = plugin.contextGenerateAdditionalJavaFiles(introspectedTable);
+
+        assertEquals(2, files.size());
+        String content = files.get(1).getFormattedContent();
+        assertTrue(content.contains("record.setTenantId(1);"));
+        assertTrue(content.contains("record.setId(1L);"));
+        assertTrue(content.contains("if (!Objects.equals(expected.getTenantId(), actual.getTenantId())) {"));
+        assertTrue(content.contains("this.tenantId = record.getTenantId();"));
+    }
+
+    @Test
+    void noFixtureByDefault() {
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(plugin.contextGenerateAdditionalJavaFiles(introspectedTable).isEmpty());
+    }
+
+    @Test
+    void helperIsNotGeneratedWhenUnused() {
+        TopLevelClass flagClass = new TopLevelClass("com.example.Flag");
+        flagClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+        flagClass.addField(new Field("enabled", FullyQualifiedJavaType.getBooleanPrimitiveInstance()));
+
+        plugin.modelBaseRecordClassGenerated(flagClass, introspectedTable);
+
+        assertNull(flagClass.getMethods().stream()
+                .filter(method -> method.getName().startsWith("writeVar"))
+                .findFirst()
+                .orElse(null));
+    }
+
+    private void addField(String name, FullyQualifiedJavaType type) {
+        Field field = new Field(name, type);
+        field.setVisibility(JavaVisibility.PRIVATE);
+        topLevelClass.addField(field);
+
+        Method setter = new Method("set" + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+        setter.setVisibility(JavaVisibility.PUBLIC);
+        setter.addParameter(new Parameter(type, name));
+        setter.addBodyLine("this." + name + " = " + name + ";");
+        topLevelClass.addMethod(setter);
+    }
+
+    private Method getMethod(String name) {
+        return topLevelClass.getMethods().stream()
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,233 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.JDBCType;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3Impl;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.ObjectFactory;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImmutableModelPluginTest {
+
+    private ImmutableModelPlugin plugin;
+    private TableConfiguration tableConfiguration;
+    private JavaModelGeneratorConfiguration modelConfiguration;
+    private TopLevelClass topLevelClass;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @Mock
+    private IntrospectedColumn introspectedColumn;
+
+    @Mock
+    private Context context;
+
+    @BeforeEach
+    void setUp() {
+        plugin = new ImmutableModelPlugin();
+        topLevelClass = new TopLevelClass("com.example.User");
+
+        when(context.getDefaultModelType()).thenReturn(ModelType.CONDITIONAL);
+        tableConfiguration = new TableConfiguration(context);
+        modelConfiguration = new JavaModelGeneratorConfiguration();
+
+        when(introspectedTable.getTableConfiguration()).thenReturn(tableConfiguration);
+        when(context.getJavaModelGeneratorConfiguration()).thenReturn(modelConfiguration);
+
+        plugin.setContext(context);
+        plugin.setProperties(new Properties());
+        plugin.validate(new ArrayList<>());
+    }
+
+    @Test
+    void initializedEnablesImmutable() {
+        plugin.initialized(introspectedTable);
+
+        assertEquals("true", tableConfiguration.getProperty("immutable"));
+    }
+
+    @Test
+    void initializedKeepsTableConfiguration() {
+        tableConfiguration.addProperty("immutable", "false");
+
+        plugin.initialized(introspectedTable);
+
+        assertEquals("false", tableConfiguration.getProperty("immutable"));
+    }
+
+    @Test
+    void initializedKeepsModelConfiguration() {
+        modelConfiguration.addProperty("immutable", "false");
+
+        plugin.initialized(introspectedTable);
+
+        assertFalse(tableConfiguration.getProperties().containsKey("immutable"));
+    }
+
+    @Test
+    void instanceFieldOfImmutableModelIsFinal() {
+        when(introspectedTable.isImmutable()).thenReturn(true);
+        Field field = new Field("name", FullyQualifiedJavaType.getStringInstance());
+
+        assertTrue(plugin.modelFieldGenerated(
+                field, topLevelClass, introspectedColumn, introspectedTable, Plugin.ModelClassType.BASE_RECORD));
+        assertTrue(field.isFinal());
+    }
+
+    @Test
+    void staticFieldIsNotChanged() {
+        when(introspectedTable.isImmutable()).thenReturn(true);
+        Field field = new Field("DEFAULT_NAME", FullyQualifiedJavaType.getStringInstance());
+        field.setStatic(true);
+
+        plugin.modelFieldGenerated(
+                field, topLevelClass, introspectedColumn, introspectedTable, Plugin.ModelClassType.BASE_RECORD);
+
+        assertFalse(field.isFinal());
+    }
+
+    @Test
+    void fieldOfMutableModelIsNotFinal() {
+        when(introspectedTable.isImmutable()).thenReturn(false);
+        Field field = new Field("name", FullyQualifiedJavaType.getStringInstance());
+
+        plugin.modelFieldGenerated(
+                field, topLevelClass, introspectedColumn, introspectedTable, Plugin.ModelClassType.BASE_RECORD);
+
+        assertFalse(field.isFinal());
+    }
+
+    @Test
+    void blobFieldIsInitializedByConstructorWithoutBLOBs(@TempDir Path directory) throws IOException {
+        List<GeneratedJavaFile> files = generateModels(ModelType.CONDITIONAL);
+        TopLevelClass model = (TopLevelClass) files.stream()
+                .filter(file -> file.getFileName().equals("User.java"))
+                .findFirst()
+                .get()
+                .getCompilationUnit();
+
+        List<Method> constructors =
+                model.getMethods().stream().filter(Method::isConstructor).collect(Collectors.toList());
+        assertEquals(2, constructors.size());
+        assertEquals(
+                Arrays.asList("this.id = id;", "this.name = name;", "this.bio = null;"),
+                constructors.get(0).getBodyLines());
+        assertEquals(
+                Arrays.asList("this.id = id;", "this.name = name;", "this.bio = bio;"),
+                constructors.get(1).getBodyLines());
+        assertTrue(compile(directory, files));
+    }
+
+    @Test
+    void recordWithBLOBsIsNotChanged(@TempDir Path directory) throws IOException {
+        List<GeneratedJavaFile> files = generateModels(ModelType.HIERARCHICAL);
+
+        assertEquals(3, files.size());
+        files.stream()
+                .map(file -> (TopLevelClass) file.getCompilationUnit())
+                .flatMap(model -> model.getMethods().stream())
+                .filter(Method::isConstructor)
+                .forEach(constructor -> assertFalse(constructor.getBodyLines().contains("this.bio = null;")));
+        assertTrue(compile(directory, files));
+    }
+
+    private List<GeneratedJavaFile> generateModels(ModelType modelType) {
+        Context realContext = Mockito.spy(new Context(modelType));
+        doReturn(plugin).when(realContext).getPlugins();
+        realContext.setId("test");
+        realContext.setTargetRuntime("MyBatis3");
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("com.example");
+        javaModelGeneratorConfiguration.setTargetProject("src/main/java");
+        realContext.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+        SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration = new SqlMapGeneratorConfiguration();
+        sqlMapGeneratorConfiguration.setTargetPackage("com.example");
+        sqlMapGeneratorConfiguration.setTargetProject("src/main/resources");
+        realContext.setSqlMapGeneratorConfiguration(sqlMapGeneratorConfiguration);
+        plugin.setContext(realContext);
+
+        TableConfiguration userConfiguration = new TableConfiguration(realContext);
+        userConfiguration.setTableName("user");
+        IntrospectedTable table = new IntrospectedTableMyBatis3Impl();
+        table.setContext(realContext);
+        table.setTableConfiguration(userConfiguration);
+        table.setFullyQualifiedTable(new FullyQualifiedTable(
+                null, null, "user", null, null, false, null, null, null, false, null, realContext));
+        addColumn(realContext, table, "id", "java.lang.Long", Types.BIGINT);
+        addColumn(realContext, table, "name", "java.lang.String", Types.VARCHAR);
+        addColumn(realContext, table, "bio", "java.lang.String", Types.LONGVARCHAR);
+        table.addPrimaryKeyColumn("id");
+
+        table.initialize();
+        table.calculateGenerators(new ArrayList<>(), new ProgressCallback() {});
+        return table.getGeneratedJavaFiles().stream()
+                .filter(file -> !file.getFileName().endsWith("Example.java"))
+                .collect(Collectors.toList());
+    }
+
+    private void addColumn(Context realContext, IntrospectedTable table, String name, String type, int jdbcType) {
+        IntrospectedColumn column = ObjectFactory.createIntrospectedColumn(realContext);
+        column.setActualColumnName(name);
+        column.setJavaProperty(name);
+        column.setFullyQualifiedJavaType(new FullyQualifiedJavaType(type));
+        column.setJdbcType(jdbcType);
+        column.setJdbcTypeName(JDBCType.valueOf(jdbcType).getName());
+        column.setIntrospectedTable(table);
+        table.addColumn(column);
+    }
+
+    private boolean compile(Path directory, List<GeneratedJavaFile> files) throws IOException {
+        List<String> arguments = new ArrayList<>(Arrays.asList("-d", directory.toString()));
+        for (GeneratedJavaFile file : files) {
+            Path source = directory.resolve(file.getFileName());
+            Files.write(source, file.getFormattedContent().getBytes(StandardCharsets.UTF_8));
+            arguments.add(source.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        return compiler.run(null, null, null, arguments.toArray(new String[0])) == 0;
+    }
+}
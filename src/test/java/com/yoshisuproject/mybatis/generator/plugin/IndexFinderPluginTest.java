@@ -0,0 +1,286 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.internal.rules.Rules;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IndexFinderPluginTest {
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @Mock
+    private FullyQualifiedTable fullyQualifiedTable;
+
+    @Mock
+    private Rules rules;
+
+    @Mock
+    private CommentGenerator commentGenerator;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DatabaseMetaData databaseMetaData;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private IndexFinderPlugin plugin;
+
+    private JavaClientGeneratorConfiguration clientConfiguration;
+
+    private Interface interfaze;
+
+    private Document document;
+
+    private List<String> warnings;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = new IndexFinderPlugin();
+        plugin.setContext(context);
+        plugin.setProperties(new Properties());
+        warnings = new ArrayList<>();
+        plugin.validate(warnings);
+
+        interfaze = new Interface(new FullyQualifiedJavaType("com.example.UserMapper"));
+        document = new Document();
+        document.setRootElement(new XmlElement("mapper"));
+
+        IntrospectedColumn id = createColumn("id", "id", "java.lang.Long", "BIGINT");
+        IntrospectedColumn email = createColumn("email", "email", "java.lang.String", "VARCHAR");
+        IntrospectedColumn tenantId = createColumn("tenant_id", "tenantId", "java.lang.Long", "BIGINT");
+        IntrospectedColumn createdAt = createColumn("created_at", "createdAt", "java.util.Date", "TIMESTAMP");
+
+        clientConfiguration = new JavaClientGeneratorConfiguration();
+        clientConfiguration.setConfigurationType("XMLMAPPER");
+
+        when(context.getConnection()).thenReturn(connection);
+        when(context.getCommentGenerator()).thenReturn(commentGenerator);
+        when(context.getSqlMapGeneratorConfiguration()).thenReturn(new SqlMapGeneratorConfiguration());
+        when(context.getJavaClientGeneratorConfiguration()).thenReturn(clientConfiguration);
+        when(context.getIntrospectedTables()).thenReturn(Collections.singletonList(introspectedTable));
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        when(databaseMetaData.getIndexInfo(null, null, "user", false, true)).thenReturn(resultSet);
+
+        when(introspectedTable.getTargetRuntime()).thenReturn(IntrospectedTable.TargetRuntime.MYBATIS3);
+        when(introspectedTable.getFullyQualifiedTable()).thenReturn(fullyQualifiedTable);
+        when(introspectedTable.getRules()).thenReturn(rules);
+        when(introspectedTable.getBaseResultMapId()).thenReturn("BaseResultMap");
+        when(introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()).thenReturn("user");
+        when(introspectedTable.getPrimaryKeyColumns()).thenReturn(Collections.singletonList(id));
+        when(introspectedTable.getAllColumns()).thenReturn(Arrays.asList(id, email, tenantId, createdAt));
+        when(introspectedTable.getColumn("id")).thenReturn(Optional.of(id));
+        when(introspectedTable.getColumn("email")).thenReturn(Optional.of(email));
+        when(introspectedTable.getColumn("tenant_id")).thenReturn(Optional.of(tenantId));
+        when(introspectedTable.getColumn("created_at")).thenReturn(Optional.of(createdAt));
+        when(fullyQualifiedTable.getIntrospectedTableName()).thenReturn("user");
+        when(rules.generateBaseResultMap()).thenReturn(true);
+        when(rules.calculateAllFieldsClass()).thenReturn(new FullyQualifiedJavaType("com.example.User"));
+
+        when(resultSet.next()).thenReturn(true, true, true, true, true, false);
+        when(resultSet.getString("INDEX_NAME"))
+                .thenReturn("PRIMARY", "uk_email", "idx_tenant_created", "idx_tenant_created", "idx_lower_email");
+        when(resultSet.getBoolean("NON_UNIQUE")).thenReturn(false, false, true, true, true);
+        when(resultSet.getShort("TYPE")).thenReturn(DatabaseMetaData.tableIndexOther);
+        when(resultSet.getShort("ORDINAL_POSITION")).thenReturn((short) 1, (short) 1, (short) 2, (short) 1, (short) 1);
+        when(resultSet.getString("COLUMN_NAME")).thenReturn("id", "email", "created_at", "tenant_id", null);
+    }
+
+    @Test
+    void testClientGenerated() {
+        plugin.initialized(introspectedTable);
+        boolean result = plugin.clientGenerated(interfaze, introspectedTable);
+
+        assertTrue(result);
+        assertEquals(2, interfaze.getMethods().size());
+
+        Method unique = interfaze.getMethods().get(0);
+        assertEquals("selectOptionalByEmail", unique.getName());
+        assertEquals("Optional<com.example.User>", unique.getReturnType().get().getFullyQualifiedName());
+        assertEquals(1, unique.getParameters().size());
+        assertTrue(unique.getParameters().get(0).getAnnotations().isEmpty());
+
+        Method nonUnique = interfaze.getMethods().get(1);
+        assertEquals("selectByTenantIdAndCreatedAt", nonUnique.getName());
+        assertEquals(
+                "java.util.List<com.example.User>",
+                nonUnique.getReturnType().get().getFullyQualifiedName());
+        assertEquals("tenantId", nonUnique.getParameters().get(0).getName());
+        assertEquals("createdAt", nonUnique.getParameters().get(1).getName());
+        assertTrue(nonUnique.getParameters().get(0).getAnnotations().contains("@Param(\"tenantId\")"));
+
+        assertTrue(interfaze.getImportedTypes().contains(new FullyQualifiedJavaType("java.util.Optional")));
+        assertTrue(interfaze
+                .getImportedTypes()
+                .contains(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param")));
+        verify(context).closeConnection(connection);
+    }
+
+    @Test
+    void testSqlMapDocumentGenerated() {
+        plugin.initialized(introspectedTable);
+        boolean result = plugin.sqlMapDocumentGenerated(document, introspectedTable);
+
+        assertTrue(result);
+        assertEquals(2, document.getRootElement().getElements().size());
+
+        XmlElement select = (XmlElement) document.getRootElement().getElements().get(1);
+        assertEquals("select", select.getName());
+        assertEquals(
+                "selectByTenantIdAndCreatedAt", select.getAttributes().get(0).getValue());
+        assertEquals("BaseResultMap", select.getAttributes().get(1).getValue());
+        assertEquals("id, email, tenant_id, created_at", getContent(select, 1));
+        assertEquals("from user", getContent(select, 2));
+        assertEquals("where tenant_id = #{tenantId,jdbcType=BIGINT}", getContent(select, 3));
+        assertEquals("  and created_at = #{createdAt,jdbcType=TIMESTAMP}", getContent(select, 4));
+    }
+
+    @Test
+    void testCustomMethodPrefix() {
+        Properties properties = new Properties();
+        properties.setProperty("optionalMethodPrefix", "findOptional");
+        plugin.setProperties(properties);
+        plugin.validate(new ArrayList<>());
+
+        plugin.initialized(introspectedTable);
+        plugin.clientGenerated(interfaze, introspectedTable);
+
+        assertEquals("findOptionalByEmail", interfaze.getMethods().get(0).getName());
+    }
+
+    @Test
+    void testPartialIndexIsSkipped() throws SQLException {
+        when(resultSet.getString("FILTER_CONDITION")).thenReturn(null, "deleted_at IS NULL", null, null, null);
+
+        plugin.initialized(introspectedTable);
+        plugin.clientGenerated(interfaze, introspectedTable);
+
+        assertEquals(1, interfaze.getMethods().size());
+        assertEquals(
+                "selectByTenantIdAndCreatedAt", interfaze.getMethods().get(0).getName());
+    }
+
+    @Test
+    void testAnnotatedMapperIsSkipped() throws SQLException {
+        clientConfiguration.setConfigurationType("ANNOTATEDMAPPER");
+
+        plugin.initialized(introspectedTable);
+        plugin.clientGenerated(interfaze, introspectedTable);
+
+        assertTrue(interfaze.getMethods().isEmpty());
+        verify(context, never()).getConnection();
+        verify(commentGenerator, never()).addGeneralMethodComment(any(Method.class), any(IntrospectedTable.class));
+    }
+
+    @Test
+    void testIndexesOfAllTablesAreReadOverOneConnection() throws SQLException {
+        IntrospectedTable otherTable = mock(IntrospectedTable.class);
+        FullyQualifiedTable otherFullyQualifiedTable = mock(FullyQualifiedTable.class);
+        ResultSet otherResultSet = mock(ResultSet.class);
+        when(otherTable.getTargetRuntime()).thenReturn(IntrospectedTable.TargetRuntime.MYBATIS3);
+        when(otherTable.getFullyQualifiedTable()).thenReturn(otherFullyQualifiedTable);
+        when(otherTable.getRules()).thenReturn(rules);
+        when(otherFullyQualifiedTable.getIntrospectedTableName()).thenReturn("account");
+        when(databaseMetaData.getIndexInfo(null, null, "account", false, true)).thenReturn(otherResultSet);
+        when(context.getIntrospectedTables()).thenReturn(Arrays.asList(introspectedTable, otherTable));
+
+        plugin.initialized(introspectedTable);
+        plugin.initialized(otherTable);
+        plugin.clientGenerated(interfaze, introspectedTable);
+
+        assertEquals(2, interfaze.getMethods().size());
+        verify(context, times(1)).getConnection();
+        verify(databaseMetaData).getIndexInfo(null, null, "account", false, true);
+        verify(context, times(1)).closeConnection(connection);
+    }
+
+    @Test
+    void testMetadataErrorIsReported() throws SQLException {
+        when(databaseMetaData.getIndexInfo(null, null, "user", false, true))
+                .thenThrow(new SQLException("access denied"));
+
+        plugin.initialized(introspectedTable);
+        plugin.clientGenerated(interfaze, introspectedTable);
+
+        assertTrue(interfaze.getMethods().isEmpty());
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("access denied"));
+    }
+
+    @Test
+    void testTableWithoutResultMapIsSkipped() {
+        when(rules.generateBaseResultMap()).thenReturn(false);
+        when(rules.generateResultMapWithBLOBs()).thenReturn(false);
+
+        plugin.initialized(introspectedTable);
+        plugin.clientGenerated(interfaze, introspectedTable);
+        plugin.sqlMapDocumentGenerated(document, introspectedTable);
+
+        assertTrue(interfaze.getMethods().isEmpty());
+        assertTrue(document.getRootElement().getElements().isEmpty());
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("no result map"));
+    }
+
+    private IntrospectedColumn createColumn(String name, String property, String type, String jdbcTypeName) {
+        IntrospectedColumn column = new IntrospectedColumn();
+        column.setActualColumnName(name);
+        column.setJavaProperty(property);
+        column.setFullyQualifiedJavaType(new FullyQualifiedJavaType(type));
+        column.setJdbcType(Types.OTHER);
+        column.setJdbcTypeName(jdbcTypeName);
+        column.setContext(context);
+        return column;
+    }
+
+    private String getContent(XmlElement element, int index) {
+        return ((TextElement) element.getElements().get(index)).getContent();
+    }
+}
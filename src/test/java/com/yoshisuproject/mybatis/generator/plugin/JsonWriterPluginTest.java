@@ -0,0 +1,212 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+
+class JsonWriterPluginTest {
+
+    private JsonWriterPlugin plugin;
+    private Properties properties;
+    private TopLevelClass topLevelClass;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private CommentGenerator commentGenerator;
+
+    @BeforeEach
+    void setUp() {
+        plugin = new JsonWriterPlugin();
+        properties = new Properties();
+
+        topLevelClass = new TopLevelClass("com.example.User");
+        topLevelClass.addField(new Field("id", new FullyQualifiedJavaType("java.lang.Long")));
+        topLevelClass.addField(new Field("name", FullyQualifiedJavaType.getStringInstance()));
+        topLevelClass.addField(new Field("enabled", FullyQualifiedJavaType.getBooleanPrimitiveInstance()));
+        topLevelClass.addField(new Field("createdAt", FullyQualifiedJavaType.getDateInstance()));
+        topLevelClass.addField(new Field("avatar", new FullyQualifiedJavaType("byte[]")));
+
+        Field serialVersionUID = new Field("serialVersionUID", new FullyQualifiedJavaType("long"));
+        serialVersionUID.setStatic(true);
+        serialVersionUID.setFinal(true);
+        serialVersionUID.setVisibility(JavaVisibility.PRIVATE);
+        topLevelClass.addField(serialVersionUID);
+
+        topLevelClass.addSuperInterface(new FullyQualifiedJavaType("java.io.Serializable"));
+
+        introspectedTable = Mockito.mock(IntrospectedTable.class);
+        context = Mockito.mock(Context.class);
+        commentGenerator = Mockito.mock(CommentGenerator.class);
+
+        JavaModelGeneratorConfiguration modelConfiguration = new JavaModelGeneratorConfiguration();
+        modelConfiguration.setTargetProject("src/main/java");
+
+        when(introspectedTable.getTargetRuntime()).thenReturn(IntrospectedTable.TargetRuntime.MYBATIS3);
+        when(introspectedTable.getBaseRecordType()).thenReturn("com.example.User");
+        when(introspectedTable.getPrimaryKeyType()).thenReturn("com.example.UserKey");
+        when(context.getCommentGenerator()).thenReturn(commentGenerator);
+        when(context.getJavaFormatter()).thenReturn(new DefaultJavaFormatter());
+        when(context.getJavaModelGeneratorConfiguration()).thenReturn(modelConfiguration);
+
+        plugin.setContext(context);
+        plugin.setProperties(properties);
+        plugin.validate(new ArrayList<>());
+    }
+
+    @Test
+    void generateWriteJson() {
+        assertTrue(plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable));
+
+        Method writeJson = getMethod(topLevelClass, "writeJson");
+        assertNotNull(writeJson);
+        assertEquals(
+                Arrays.asList("out.append('{');", "writeJsonFields(out, true);", "out.append('}');"),
+                writeJson.getBodyLines());
+
+        List<String> lines = getMethod(topLevelClass, "writeJsonFields").getBodyLines();
+        assertEquals("out.append(first ? \"\\\"id\\\":\" : \",\\\"id\\\":\");", lines.get(0));
+        assertTrue(lines.contains("out.append(String.valueOf(this.id));"));
+        assertTrue(lines.contains("out.append(\",\\\"name\\\":\");"));
+        assertTrue(lines.contains("writeJsonString(out, this.name);"));
+        assertTrue(lines.contains("out.append(this.enabled ? \"true\" : \"false\");"));
+        assertTrue(lines.contains("out.append(String.valueOf(this.createdAt.getTime()));"));
+        assertTrue(lines.contains(
+                "out.append('\"').append(Base64.getEncoder().encodeToString(this.avatar)).append('\"');"));
+        assertEquals("return false;", lines.get(lines.size() - 1));
+        assertFalse(lines.toString().contains("serialVersionUID"));
+
+        assertNotNull(getMethod(topLevelClass, "writeJsonString"));
+    }
+
+    @Test
+    void generateWriteJsonWithGeneratedSuperClass() {
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.UserKey"));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertNull(getMethod(topLevelClass, "writeJson"));
+        Method writeJsonFields = getMethod(topLevelClass, "writeJsonFields");
+        assertTrue(writeJsonFields.getAnnotations().contains("@Override"));
+        assertEquals(
+                "boolean empty = super.writeJsonFields(out, first);",
+                writeJsonFields.getBodyLines().get(0));
+        assertEquals(
+                "out.append(empty ? \"\\\"id\\\":\" : \",\\\"id\\\":\");",
+                writeJsonFields.getBodyLines().get(1));
+    }
+
+    @Test
+    void fieldNamedLikeParameterIsQualified() {
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.UserKey"));
+        topLevelClass.addField(new Field("out", FullyQualifiedJavaType.getStringInstance()));
+        topLevelClass.addField(new Field("first", FullyQualifiedJavaType.getBooleanPrimitiveInstance()));
+        topLevelClass.addField(new Field("empty", FullyQualifiedJavaType.getIntInstance()));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        List<String> lines = getMethod(topLevelClass, "writeJsonFields").getBodyLines();
+        assertTrue(lines.contains("if (this.out == null) {"));
+        assertTrue(lines.contains("writeJsonString(out, this.out);"));
+        assertTrue(lines.contains("out.append(this.first ? \"true\" : \"false\");"));
+        assertTrue(lines.contains("out.append(String.valueOf(this.empty));"));
+    }
+
+    @Test
+    void generateWriteJsonWithRootClass() {
+        topLevelClass.setSuperClass(new FullyQualifiedJavaType("com.example.BaseEntity"));
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        assertNotNull(getMethod(topLevelClass, "writeJson"));
+
+        TopLevelClass rootedClass = new TopLevelClass("com.example.User");
+        rootedClass.setSuperClass(new FullyQualifiedJavaType("com.example.BaseEntity"));
+        properties.setProperty("useWriteJsonFromRoot", "true");
+        plugin.setProperties(properties);
+        plugin.modelBaseRecordClassGenerated(rootedClass, introspectedTable);
+
+        assertEquals(
+                Arrays.asList("out.append('{');", "writeJsonFields(out, true);", "out.append('}');"),
+                getMethod(rootedClass, "writeJson").getBodyLines());
+        assertEquals(
+                Arrays.asList("boolean empty = super.writeJsonFields(out, first);", "return empty;"),
+                getMethod(rootedClass, "writeJsonFields").getBodyLines());
+    }
+
+    @Test
+    void stringWriterIsNotGeneratedWhenUnused() {
+        TopLevelClass flagClass = new TopLevelClass("com.example.Flag");
+        flagClass.addField(new Field("enabled", FullyQualifiedJavaType.getBooleanPrimitiveInstance()));
+
+        plugin.modelBaseRecordClassGenerated(flagClass, introspectedTable);
+
+        assertEquals(
+                Arrays.asList(
+                        "out.append(first ? \"\\\"enabled\\\":\" : \",\\\"enabled\\\":\");",
+                        "out.append(this.enabled ? \"true\" : \"false\");",
+                        "return false;"),
+                getMethod(flagClass, "writeJsonFields").getBodyLines());
+        assertNull(getMethod(flagClass, "writeJsonString"));
+    }
+
+    @Test
+    void generateJacksonSerializer() {
+        properties.setProperty("generateJacksonSerializer", "true");
+        plugin.setProperties(properties);
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        List<GeneratedJavaFile> files = plugin.contextGenerateAdditionalJavaFiles(introspectedTable);
+
+        assertTrue(topLevelClass.getAnnotations().contains("@JsonSerialize(using = UserJsonSerializer.class)"));
+        assertEquals(1, files.size());
+        assertEquals("UserJsonSerializer.java", files.get(0).getFileName());
+        assertEquals("src/main/java", files.get(0).getTargetProject());
+
+        String content = files.get(0).getFormattedContent();
+        assertTrue(content.contains("public class UserJsonSerializer extends JsonSerializer<User> {"));
+        assertTrue(content.contains("value.writeJson(sb);"));
+        assertTrue(content.contains("gen.writeRawValue(sb.toString());"));
+
+        assertTrue(plugin.contextGenerateAdditionalJavaFiles(introspectedTable).isEmpty());
+    }
+
+    @Test
+    void noJacksonSerializerByDefault() {
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(topLevelClass.getAnnotations().isEmpty());
+        assertTrue(plugin.contextGenerateAdditionalJavaFiles(introspectedTable).isEmpty());
+    }
+
+    private Method getMethod(TopLevelClass clazz, String name) {
+        return clazz.getMethods().stream()
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
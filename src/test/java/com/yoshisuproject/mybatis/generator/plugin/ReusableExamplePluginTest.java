@@ -0,0 +1,381 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+
+class ReusableExamplePluginTest {
+
+    private ReusableExamplePlugin plugin;
+    private TopLevelClass topLevelClass;
+    private InnerClass generatedCriteria;
+    private InnerClass criterion;
+    private JavaClientGeneratorConfiguration clientConfiguration;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private CommentGenerator commentGenerator;
+
+    @BeforeEach
+    void setUp() {
+        plugin = new ReusableExamplePlugin();
+
+        topLevelClass = new TopLevelClass("com.example.UserExample");
+        topLevelClass.addField(new Field("oredCriteria", new FullyQualifiedJavaType("java.util.List<Criteria>")));
+        Method constructor = new Method("UserExample");
+        constructor.setConstructor(true);
+        constructor.addBodyLine("oredCriteria = new ArrayList<>();");
+        topLevelClass.addMethod(constructor);
+        addMethod(topLevelClass, "setOrderByClause", "this.orderByClause = orderByClause;");
+        addMethod(topLevelClass, "getOrderByClause", "return orderByClause;");
+        addMethod(topLevelClass, "clear", "oredCriteria.clear();");
+
+        generatedCriteria = new InnerClass("GeneratedCriteria");
+        generatedCriteria.addField(new Field("criteria", new FullyQualifiedJavaType("java.util.List<Criterion>")));
+        Method criteriaConstructor = new Method("GeneratedCriteria");
+        criteriaConstructor.setConstructor(true);
+        criteriaConstructor.addBodyLine("super();");
+        criteriaConstructor.addBodyLine("criteria = new ArrayList<>();");
+        generatedCriteria.addMethod(criteriaConstructor);
+        topLevelClass.addInnerClass(generatedCriteria);
+        criterion = new InnerClass("Criterion");
+        criterion.addField(new Field("value", FullyQualifiedJavaType.getObjectInstance()));
+        topLevelClass.addInnerClass(criterion);
+
+        introspectedTable = Mockito.mock(IntrospectedTable.class);
+        context = Mockito.mock(Context.class);
+        commentGenerator = Mockito.mock(CommentGenerator.class);
+
+        when(introspectedTable.getNonBLOBColumns()).thenReturn(mockColumns(3));
+        when(introspectedTable.getTargetRuntime()).thenReturn(IntrospectedTable.TargetRuntime.MYBATIS3);
+        when(introspectedTable.getExampleType()).thenReturn("com.example.UserExample");
+        when(introspectedTable.getExampleWhereClauseId()).thenReturn("Example_Where_Clause");
+        when(introspectedTable.getSelectByExampleStatementId()).thenReturn("selectByExample");
+        when(introspectedTable.getSelectByExampleWithBLOBsStatementId()).thenReturn("selectByExampleWithBLOBs");
+        when(context.getCommentGenerator()).thenReturn(commentGenerator);
+        when(context.getSqlMapGeneratorConfiguration()).thenReturn(new SqlMapGeneratorConfiguration());
+        clientConfiguration = new JavaClientGeneratorConfiguration();
+        clientConfiguration.setConfigurationType("XMLMAPPER");
+        when(context.getJavaClientGeneratorConfiguration()).thenReturn(clientConfiguration);
+
+        plugin.setContext(context);
+        plugin.setProperties(new Properties());
+        plugin.validate(new ArrayList<>());
+    }
+
+    @Test
+    void presizeCriteria() {
+        assertTrue(plugin.modelExampleClassGenerated(topLevelClass, introspectedTable));
+
+        assertEquals(
+                "oredCriteria = new ArrayList<>(1);",
+                getMethod(topLevelClass, "UserExample").getBodyLines().get(0));
+        assertEquals(
+                Arrays.asList("super();", "criteria = new ArrayList<>(3);"),
+                generatedCriteria.getMethods().get(0).getBodyLines());
+    }
+
+    @Test
+    void presizeIsCapped() {
+        when(introspectedTable.getNonBLOBColumns()).thenReturn(mockColumns(30));
+
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        assertEquals(
+                "criteria = new ArrayList<>(10);",
+                generatedCriteria.getMethods().get(0).getBodyLines().get(1));
+    }
+
+    @Test
+    void presizeTypeHandledCriteria() {
+        List<IntrospectedColumn> columns = mockColumns(3);
+        when(columns.get(0).getTypeHandler()).thenReturn("com.example.NameHandler");
+        when(introspectedTable.getNonBLOBColumns()).thenReturn(columns);
+        generatedCriteria.getMethods().get(0).addBodyLine("nameCriteria = new ArrayList<>();");
+
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        assertEquals(
+                Arrays.asList("super();", "criteria = new ArrayList<>(2);", "nameCriteria = new ArrayList<>(1);"),
+                generatedCriteria.getMethods().get(0).getBodyLines());
+    }
+
+    @Test
+    void generateFreeze() {
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(topLevelClass.getFields().stream()
+                .anyMatch(field -> field.getName().equals("frozen")));
+        assertTrue(topLevelClass.getImportedTypes().contains(new FullyQualifiedJavaType("java.util.Collections")));
+
+        Method freeze = getMethod(topLevelClass, "freeze");
+        assertEquals(topLevelClass.getType(), freeze.getReturnType().get());
+        assertTrue(freeze.getBodyLines().contains("oredCriteria = Collections.unmodifiableList(oredCriteria);"));
+        assertTrue(freeze.getBodyLines().contains("criterions.addAll(criteria.getCriteria());"));
+        assertTrue(freeze.getBodyLines().contains("criterion.secondValueIndex = parameterCount++;"));
+        assertNotNull(getMethod(topLevelClass, "isFrozen"));
+        assertEquals(
+                JavaVisibility.PRIVATE,
+                getMethod(topLevelClass, "checkNotFrozen").getVisibility());
+
+        Method criteriaFreeze = generatedCriteria.getMethods().stream()
+                .filter(method -> method.getName().equals("freeze"))
+                .findFirst()
+                .get();
+        assertEquals(
+                Arrays.asList("criteria = Collections.unmodifiableList(criteria);"), criteriaFreeze.getBodyLines());
+    }
+
+    @Test
+    void mutatorsCheckFrozen() {
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        assertEquals(
+                "checkNotFrozen();",
+                getMethod(topLevelClass, "setOrderByClause").getBodyLines().get(0));
+        assertEquals(
+                "checkNotFrozen();",
+                getMethod(topLevelClass, "clear").getBodyLines().get(0));
+        assertEquals(
+                "return orderByClause;",
+                getMethod(topLevelClass, "getOrderByClause").getBodyLines().get(0));
+        assertEquals(
+                "oredCriteria = new ArrayList<>(1);",
+                getMethod(topLevelClass, "UserExample").getBodyLines().get(0));
+    }
+
+    @Test
+    void freezeBuildsAllCriteriaOfTypeHandledColumns() {
+        generatedCriteria.addField(new Field("nameCriteria", new FullyQualifiedJavaType("List<Criterion>")));
+        generatedCriteria.addField(new Field("allCriteria", new FullyQualifiedJavaType("List<Criterion>")));
+
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        Method criteriaFreeze = generatedCriteria.getMethods().stream()
+                .filter(method -> method.getName().equals("freeze"))
+                .findFirst()
+                .get();
+        assertEquals(
+                Arrays.asList(
+                        "criteria = Collections.unmodifiableList(criteria);",
+                        "nameCriteria = Collections.unmodifiableList(nameCriteria);",
+                        "allCriteria = Collections.unmodifiableList(getAllCriteria());"),
+                criteriaFreeze.getBodyLines());
+        assertTrue(getMethod(topLevelClass, "freeze")
+                .getBodyLines()
+                .contains("criterions.addAll(criteria.getAllCriteria());"));
+    }
+
+    @Test
+    void slotsFollowTheOrderCriteriaWereAdded() {
+        Method createCriteriaInternal = new Method("createCriteriaInternal");
+        createCriteriaInternal.addBodyLine("Criteria criteria = new Criteria();");
+        createCriteriaInternal.addBodyLine("return criteria;");
+        topLevelClass.addMethod(createCriteriaInternal);
+        Method addCriterion = new Method("addCriterion");
+        addCriterion.addBodyLine("criteria.add(new Criterion(condition, value));");
+        addCriterion.addBodyLine("allCriteria = null;");
+        generatedCriteria.addMethod(addCriterion);
+        Method addNameCriterion = new Method("addNameCriterion");
+        addNameCriterion.addBodyLine("nameCriteria.add(new Criterion(condition, value, \"com.example.NameHandler\"));");
+        generatedCriteria.addMethod(addNameCriterion);
+
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        assertEquals(
+                Arrays.asList("Criteria criteria = new Criteria();", "criteria.example = this;", "return criteria;"),
+                createCriteriaInternal.getBodyLines());
+        assertEquals(
+                Arrays.asList("criteria.add(sequence(new Criterion(condition, value)));", "allCriteria = null;"),
+                addCriterion.getBodyLines());
+        assertEquals(
+                "nameCriteria.add(sequence(new Criterion(condition, value, \"com.example.NameHandler\")));",
+                addNameCriterion.getBodyLines().get(0));
+        assertTrue(
+                criterion.getFields().stream().anyMatch(field -> field.getName().equals("sequence")));
+        assertTrue(topLevelClass.getFields().stream()
+                .anyMatch(field -> field.getName().equals("criterionSequence")));
+        assertTrue(generatedCriteria.getMethods().stream()
+                .anyMatch(method -> method.getName().equals("sequence")));
+        assertTrue(getMethod(topLevelClass, "freeze")
+                .getBodyLines()
+                .contains("criterions.sort((left, right) -> Integer.compare(left.sequence, right.sequence));"));
+    }
+
+    @Test
+    void generateBind() {
+        plugin.modelExampleClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(
+                criterion.getFields().stream().anyMatch(field -> field.getName().equals("valueIndex")));
+        assertTrue(criterion.getMethods().stream()
+                .anyMatch(method -> method.getName().equals("getSecondValueIndex")));
+
+        Method bind = getMethod(topLevelClass, "bind");
+        assertTrue(bind.getParameters().get(0).isVarargs());
+        assertEquals(
+                "return new Bound(this, Arrays.asList(values));",
+                bind.getBodyLines().get(bind.getBodyLines().size() - 1));
+
+        InnerClass bound = topLevelClass.getInnerClasses().stream()
+                .filter(innerClass -> innerClass.getType().getShortName().equals("Bound"))
+                .findFirst()
+                .get();
+        assertTrue(bound.isStatic());
+        assertEquals(
+                Arrays.asList("Bound", "isDistinct", "getOrderByClause", "getOredCriteria", "getValues"),
+                bound.getMethods().stream().map(Method::getName).collect(Collectors.toList()));
+        assertEquals(
+                "return example.getOredCriteria();",
+                bound.getMethods().get(3).getBodyLines().get(0));
+    }
+
+    @Test
+    void generateSelectByTemplateMethod() {
+        Interface interfaze = new Interface("com.example.UserMapper");
+        Method selectByExample = new Method("selectByExample");
+        selectByExample.setReturnType(new FullyQualifiedJavaType("java.util.List<com.example.User>"));
+        selectByExample.addParameter(new Parameter(new FullyQualifiedJavaType("com.example.UserExample"), "example"));
+
+        assertTrue(
+                plugin.clientSelectByExampleWithoutBLOBsMethodGenerated(selectByExample, interfaze, introspectedTable));
+
+        Method selectByTemplate = interfaze.getMethods().get(0);
+        assertEquals("selectByTemplate", selectByTemplate.getName());
+        assertEquals(selectByExample.getReturnType(), selectByTemplate.getReturnType());
+        assertEquals(
+                "com.example.UserExample.Bound",
+                selectByTemplate.getParameters().get(0).getType().getFullyQualifiedName());
+        assertTrue(interfaze.getImportedTypes().contains(new FullyQualifiedJavaType("com.example.UserExample.Bound")));
+    }
+
+    @Test
+    void annotatedMapperIsNotChanged() {
+        clientConfiguration.setConfigurationType("ANNOTATEDMAPPER");
+        Interface interfaze = new Interface("com.example.UserMapper");
+
+        plugin.clientSelectByExampleWithBLOBsMethodGenerated(
+                new Method("selectByExampleWithBLOBs"), interfaze, introspectedTable);
+
+        assertTrue(interfaze.getMethods().isEmpty());
+    }
+
+    @Test
+    void generateTemplateStatements() {
+        XmlElement whereClause = new XmlElement("sql");
+        whereClause.addAttribute(new Attribute("id", "Example_Where_Clause"));
+        XmlElement listForEach = new XmlElement("foreach");
+        listForEach.addAttribute(new Attribute("collection", "criterion.value"));
+        listForEach.addElement(new TextElement("#{listItem}"));
+        whereClause.addElement(new TextElement("and ${criterion.condition} #{criterion.value}"));
+        whereClause.addElement(
+                new TextElement("and ${criterion.condition} #{criterion.value} and #{criterion.secondValue}"));
+        whereClause.addElement(listForEach);
+
+        XmlElement select = new XmlElement("select");
+        select.addAttribute(new Attribute("id", "selectByExample"));
+        select.addAttribute(new Attribute("parameterType", "com.example.UserExample"));
+        XmlElement include = new XmlElement("include");
+        include.addAttribute(new Attribute("refid", "Example_Where_Clause"));
+        select.addElement(include);
+
+        Document document = new Document("-//mybatis.org//DTD Mapper 3.0//EN", "mybatis-3-mapper.dtd");
+        XmlElement mapper = new XmlElement("mapper");
+        mapper.addElement(whereClause);
+        mapper.addElement(select);
+        document.setRootElement(mapper);
+
+        assertTrue(plugin.sqlMapDocumentGenerated(document, introspectedTable));
+
+        assertEquals(4, mapper.getElements().size());
+        XmlElement templateWhereClause = (XmlElement) mapper.getElements().get(1);
+        assertEquals(
+                "Template_Where_Clause",
+                templateWhereClause.getAttributes().get(0).getValue());
+        assertEquals(
+                "and ${criterion.condition} #{values[${criterion.valueIndex}]}",
+                ((TextElement) templateWhereClause.getElements().get(0)).getContent());
+        assertEquals(
+                "and ${criterion.condition} #{values[${criterion.valueIndex}]}"
+                        + " and #{values[${criterion.secondValueIndex}]}",
+                ((TextElement) templateWhereClause.getElements().get(1)).getContent());
+        assertEquals(
+                "values[criterion.valueIndex]",
+                ((XmlElement) templateWhereClause.getElements().get(2))
+                        .getAttributes()
+                        .get(0)
+                        .getValue());
+
+        XmlElement selectByTemplate = (XmlElement) mapper.getElements().get(3);
+        assertEquals(
+                Arrays.asList("selectByTemplate", "com.example.UserExample$Bound"),
+                selectByTemplate.getAttributes().stream()
+                        .map(Attribute::getValue)
+                        .collect(Collectors.toList()));
+        assertEquals(
+                "Template_Where_Clause",
+                ((XmlElement) selectByTemplate.getElements().get(0))
+                        .getAttributes()
+                        .get(0)
+                        .getValue());
+        assertEquals(
+                "and ${criterion.condition} #{criterion.value}",
+                ((TextElement) whereClause.getElements().get(0)).getContent());
+    }
+
+    private List<IntrospectedColumn> mockColumns(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Mockito.mock(IntrospectedColumn.class))
+                .collect(Collectors.toList());
+    }
+
+    private void addMethod(TopLevelClass clazz, String name, String bodyLine) {
+        Method method = new Method(name);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addBodyLine(bodyLine);
+        clazz.addMethod(method);
+    }
+
+    private Method getMethod(TopLevelClass clazz, String name) {
+        return clazz.getMethods().stream()
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,146 @@
+package com.yoshisuproject.mybatis.generator.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StreamingGenerationPluginTest {
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private IntrospectedTable introspectedTable;
+
+    @TempDir
+    Path targetProject;
+
+    private StreamingGenerationPlugin plugin;
+
+    private TopLevelClass topLevelClass;
+
+    private List<String> warnings;
+
+    @BeforeEach
+    void setUp() {
+        plugin = new StreamingGenerationPlugin();
+        plugin.setContext(context);
+        plugin.setProperties(new Properties());
+        warnings = new ArrayList<>();
+        plugin.validate(warnings);
+
+        JavaModelGeneratorConfiguration modelConfiguration = new JavaModelGeneratorConfiguration();
+        modelConfiguration.setTargetProject(targetProject.toString());
+        JavaClientGeneratorConfiguration clientConfiguration = new JavaClientGeneratorConfiguration();
+        clientConfiguration.setTargetProject(targetProject.toString());
+
+        when(context.getJavaModelGeneratorConfiguration()).thenReturn(modelConfiguration);
+        when(context.getJavaClientGeneratorConfiguration()).thenReturn(clientConfiguration);
+        when(context.getJavaFormatter()).thenReturn(new DefaultJavaFormatter());
+
+        topLevelClass = new TopLevelClass("com.example.User");
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+    }
+
+    @Test
+    void modelClassIsWrittenAndDropped() throws IOException {
+        assertFalse(plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable));
+
+        Path file = targetProject.resolve("com/example/User.java");
+        assertTrue(Files.exists(file));
+        assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("public class User {"));
+    }
+
+    @Test
+    void clientInterfaceIsWrittenAndDropped() {
+        Interface interfaze = new Interface(new FullyQualifiedJavaType("com.example.UserMapper"));
+        interfaze.setVisibility(JavaVisibility.PUBLIC);
+
+        assertFalse(plugin.clientGenerated(interfaze, introspectedTable));
+        assertTrue(Files.exists(targetProject.resolve("com/example/UserMapper.java")));
+    }
+
+    @Test
+    void existingFileIsKeptWithoutOverwrite() {
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(Files.exists(targetProject.resolve("com/example/User.java")));
+        assertTrue(Files.exists(targetProject.resolve("com/example/User.java.1")));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).startsWith("Existing file was not overwritten"));
+    }
+
+    @Test
+    void existingFileIsReplacedWithOverwrite() {
+        Properties properties = new Properties();
+        properties.setProperty("overwrite", "true");
+        plugin.setProperties(properties);
+
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+        plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable);
+
+        assertTrue(Files.exists(targetProject.resolve("com/example/User.java")));
+        assertFalse(Files.exists(targetProject.resolve("com/example/User.java.1")));
+        assertEquals(1, warnings.size());
+    }
+
+    @Test
+    void missingTargetProjectIsReported() {
+        JavaModelGeneratorConfiguration modelConfiguration = new JavaModelGeneratorConfiguration();
+        modelConfiguration.setTargetProject(targetProject.resolve("missing").toString());
+        when(context.getJavaModelGeneratorConfiguration()).thenReturn(modelConfiguration);
+
+        assertFalse(plugin.modelBaseRecordClassGenerated(topLevelClass, introspectedTable));
+
+        assertFalse(Files.exists(targetProject.resolve("missing")));
+        assertEquals(1, warnings.size());
+    }
+
+    @Test
+    void sqlMapIsWrittenAndDropped() throws IOException {
+        Document document = new Document();
+        document.setRootElement(new XmlElement("mapper"));
+        GeneratedXmlFile sqlMap = new GeneratedXmlFile(
+                document, "UserMapper.xml", "mapper", targetProject.toString(), true, new DefaultXmlFormatter());
+
+        assertFalse(plugin.sqlMapGenerated(sqlMap, introspectedTable));
+
+        Path file = targetProject.resolve("mapper/UserMapper.xml");
+        assertTrue(Files.exists(file));
+        assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("<mapper"));
+    }
+}